@@ -0,0 +1,324 @@
+package graphs;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Stack;
+import structures.VertexIndex;
+
+/**
+ * A directed, weighted graph that switches between an adjacency matrix and hash
+ * adjacency lists as its edge density, {@code edgeSize() / vertexSize()^2}, changes.
+ * The graph starts sparse, moves to a {@link DirectedGraph} when density reaches the
+ * dense threshold, and moves back to a {@link SparseDirectedGraph} when it falls to
+ * the sparse threshold. Keeping the thresholds apart stops the graph from flipping
+ * back and forth around a single value.
+ *
+ * A switch is carried out a few rows at a time. Every vertex has an index of its
+ * own, and a switch walks those indices in order: rows below the cursor have moved
+ * and are answered by the new representation, the rest by the old one, and every
+ * mutating call advances the cursor by up to {@link #MIGRATION_STEP} indices. A
+ * matrix being moved to is sized for every vertex up front. No single call copies
+ * or even lists the whole graph.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class AdaptiveDirectedGraph<V> implements IGraph<V> {
+
+    /**
+     * The default density at or above which the graph moves to a matrix.
+     */
+    public static final double DEFAULT_DENSE_THRESHOLD = 0.10;
+
+    /**
+     * The default density at or below which the graph moves to adjacency lists.
+     */
+    public static final double DEFAULT_SPARSE_THRESHOLD = 0.02;
+
+    /**
+     * The number of row indices moved by each mutating call during a switch.
+     */
+    public static final int MIGRATION_STEP = 8;
+
+    private final double denseThreshold;
+    private final double sparseThreshold;
+    private AdjacencyGraph<V> active = new SparseDirectedGraph<>();
+    private AdjacencyGraph<V> target;
+    private VertexIndex<V> order = new VertexIndex<>();
+    private Stack<Integer> free = new Stack<>();
+    private int nextIndex;
+    private int cursor;
+
+    /**
+     * Creates a new graph with the default density thresholds.
+     */
+    public AdaptiveDirectedGraph() {
+        this(DEFAULT_DENSE_THRESHOLD, DEFAULT_SPARSE_THRESHOLD);
+    }
+
+    /**
+     * Creates a new graph that switches representation at the given densities.
+     *
+     * @param denseThreshold the density at or above which a matrix is used
+     * @param sparseThreshold the density at or below which adjacency lists are used,
+     *                        throws an IllegalArgumentException unless it is below
+     *                        the dense threshold
+     */
+    public AdaptiveDirectedGraph(double denseThreshold, double sparseThreshold) {
+        if (!(sparseThreshold >= 0 && sparseThreshold < denseThreshold)) {
+            throw new IllegalArgumentException("Sparse threshold must be non-negative and below the dense threshold");
+        }
+        this.denseThreshold = denseThreshold;
+        this.sparseThreshold = sparseThreshold;
+    }
+
+    /**
+     * Reports whether the graph is currently stored as a matrix. During a switch
+     * this reports the representation being moved to.
+     *
+     * @return true if the graph uses (or is moving to) a matrix, otherwise false
+     */
+    public boolean isDense() {
+        return (target == null ? active : target) instanceof DirectedGraph;
+    }
+
+    /**
+     * Returns the current edge density of the graph.
+     *
+     * @return edgeSize() / vertexSize()^2, or 0 for an empty graph
+     */
+    public double density() {
+        long vertices = vertexSize();
+        return vertices == 0 ? 0 : edgeSize() / (double) (vertices * vertices);
+    }
+
+    private AdjacencyGraph<V> rowOwner(V source) {
+        if (target != null && order.indexOf(source) < cursor) {
+            return target;
+        }
+        return active;
+    }
+
+    private void afterMutation() {
+        if (target != null) {
+            migrate();
+        } else if (active instanceof DirectedGraph ? density() <= sparseThreshold : density() >= denseThreshold) {
+            target = active instanceof DirectedGraph
+                    ? new SparseDirectedGraph<>() : new DirectedGraph<>(Math.max(vertexSize(), 1));
+            cursor = 0;
+            migrate();
+        }
+    }
+
+    private void migrate() {
+        for (int step = 0; step < MIGRATION_STEP && cursor < nextIndex; step++) {
+            V source = order.vertexAt(cursor++);
+            if (source == null) {
+                continue;
+            }
+            target.addVertex(source);
+            List<Edge<V>> row = active.outEdges(source);
+            for (Edge<V> edge : row) {
+                target.addVertex(edge.getDestination());
+                target.addEdge(source, edge.getDestination(), edge.getWeight());
+                active.removeEdge(source, edge.getDestination());
+            }
+        }
+        if (cursor == nextIndex) {
+            active = target;
+            target = null;
+        }
+    }
+
+    /**
+     * Adds a new vertex to the graph. If the vertex already exists, then no change is made to the
+     * graph.
+     *
+     * @param vertex the new vertex, throws a NullPointerException if null
+     * @return true if the vertex was added, otherwise false
+     */
+    @Override
+    public boolean addVertex(V vertex) {
+        // the sparse representation would accept null, but the index cannot
+        Objects.requireNonNull(vertex, "Vertex cannot be null");
+        if (!active.addVertex(vertex)) {
+            return false;
+        }
+        order.add(vertex, free.isEmpty() ? nextIndex++ : free.pop());
+        if (target != null) {
+            // a new vertex has no out-edges yet, so it can be in either representation
+            target.addVertex(vertex);
+        }
+        afterMutation();
+        return true;
+    }
+
+    /**
+     * Adds a new edge to the graph. If the edge already exists, then no change is made to the
+     * graph.
+     *
+     * Edges are considered to be directed.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     * @return true if the edge was added, otherwise false
+     */
+    @Override
+    public boolean addEdge(V source, V destination, int weight) throws IllegalArgumentException {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        if (!containsVertex(source) || !containsVertex(destination)) {
+            return false;
+        }
+        AdjacencyGraph<V> owner = rowOwner(source);
+        if (owner == target) {
+            target.addVertex(destination);
+        }
+        if (!owner.addEdge(source, destination, weight)) {
+            return false;
+        }
+        afterMutation();
+        return true;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the vertex count.
+     */
+    @Override
+    public int vertexSize() {
+        return active.vertexSize();
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the edge count
+     */
+    @Override
+    public int edgeSize() {
+        return active.edgeSize() + (target == null ? 0 : target.edgeSize());
+    }
+
+    /**
+     * Reports whether a vertex is in the graph or not.
+     *
+     * @param vertex a vertex to search for
+     * @return true if the vertex is in the graph, or false otherwise
+     */
+    @Override
+    public boolean containsVertex(V vertex) {
+        return active.containsVertex(vertex);
+    }
+
+    /**
+     * Reports whether an edge is in the graph or not.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return true if edge is in the graph, or false otherwise
+     */
+    @Override
+    public boolean containsEdge(V source, V destination) {
+        return rowOwner(source).containsEdge(source, destination);
+    }
+
+    /**
+     * Returns the edge weight of an edge in the graph.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return the edge weight, or -1 if the edge weight is not found
+     */
+    @Override
+    public int edgeWeight(V source, V destination) {
+        return rowOwner(source).edgeWeight(source, destination);
+    }
+
+    /**
+     * Returns a set with all vertices in the graph.
+     *
+     * @return a vertex set
+     */
+    @Override
+    public Set<V> vertices() {
+        return active.vertices();
+    }
+
+    /**
+     * Returns a set with all edges in the graph.
+     *
+     * @return an edge set
+     */
+    @Override
+    public Set<Edge<V>> edges() {
+        Set<Edge<V>> set = active.edges();
+        if (target != null) {
+            set.addAll(target.edges());
+        }
+        return set;
+    }
+
+    /**
+     * Removes a vertex from the graph.
+     *
+     * @param vertex the vertex to search for and remove
+     * @return true if the vertex was found and removed, otherwise false
+     */
+    @Override
+    public boolean removeVertex(V vertex) {
+        if (!active.removeVertex(vertex)) {
+            return false;
+        }
+        free.push(order.remove(vertex));
+        if (target != null) {
+            target.removeVertex(vertex);
+        }
+        afterMutation();
+        return true;
+    }
+
+    /**
+     * Removes a vertex from the graph.
+     *
+     * @param source the source vertex of the edge to search for and remove
+     * @param destination the destination vertex of the edge to search for and remove
+     * @return true if the edge was found and removed, otherwise false
+     */
+    @Override
+    public boolean removeEdge(V source, V destination) {
+        if (!rowOwner(source).removeEdge(source, destination)) {
+            return false;
+        }
+        afterMutation();
+        return true;
+    }
+
+    /**
+     * Removes all vertices and edges from the graph. The graph returns to adjacency lists.
+     */
+    @Override
+    public void clear() {
+        active = new SparseDirectedGraph<>();
+        target = null;
+        order.clear();
+        free.clear();
+        nextIndex = 0;
+        cursor = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveDirectedGraph{" +
+            "active=" + active +
+            ", target=" + target +
+            ", denseThreshold=" + denseThreshold +
+            ", sparseThreshold=" + sparseThreshold +
+            '}';
+    }
+}
@@ -0,0 +1,22 @@
+package graphs;
+
+import java.util.List;
+
+/**
+ * A graph that can list the out-edges of a single vertex without building the
+ * whole edge set. Used to move rows between graph representations.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+interface AdjacencyGraph<V> extends IGraph<V> {
+
+    /**
+     * Returns the edges leaving a vertex.
+     *
+     * @param source the source vertex
+     * @return the out-edges of the vertex, empty if the vertex is not in the graph
+     */
+    List<Edge<V>> outEdges(V source);
+}
@@ -0,0 +1,330 @@
+package graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Stack;
+import structures.CompressedRow;
+import structures.VertexIndex;
+
+/**
+ * A directed, weighted graph that keeps each vertex's out-edges in a
+ * {@link CompressedRow}, a Roaring-style compressed bitmap of destination indices
+ * with the weights in a parallel array. Edge lookups stay close to matrix speed
+ * while memory grows with the number of edges rather than with V^2, and vertices
+ * without out-edges cost no row at all.
+ *
+ * Rows can be intersected and united directly, see
+ * {@link #commonOutNeighbors(Object, Object)} and {@link #outNeighborUnion(Object, Object)}.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class CompressedDirectedGraph<V> implements AdjacencyGraph<V> {
+
+    private Stack<Integer> stack = new Stack<>();
+    private VertexIndex<V> map = new VertexIndex<>();
+    private CompressedRow[] rows = new CompressedRow[DirectedGraph.DEFAULT_CAPACITY];
+    private int nextIndex;
+    private int edgeSize;
+
+    /**
+     * Adds a new vertex to the graph. If the vertex already exists, then no change is made to the
+     * graph.
+     *
+     * @param vertex the new vertex, throws a NullPointerException if null
+     * @return true if the vertex was added, otherwise false
+     */
+    @Override
+    public boolean addVertex(V vertex) {
+        // reject null before an index is taken, so a freed index is not lost
+        Objects.requireNonNull(vertex, "Vertex cannot be null");
+        if (this.containsVertex(vertex)) {
+            return false;
+        }
+        int index;
+        if (!stack.isEmpty()) {
+            index = stack.pop();
+        } else {
+            if (nextIndex == rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+            }
+            index = nextIndex++;
+        }
+        map.add(vertex, index);
+        return true;
+    }
+
+    /**
+     * Adds a new edge to the graph. If the edge already exists, then no change is made to the
+     * graph.
+     *
+     * Edges are considered to be directed.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     * @return true if the edge was added, otherwise false
+     */
+    @Override
+    public boolean addEdge(V source, V destination, int weight) throws IllegalArgumentException {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        int row = map.indexOf(source);
+        int column = map.indexOf(destination);
+        if (row == -1 || column == -1) {
+            return false;
+        }
+        if (rows[row] == null) {
+            rows[row] = new CompressedRow();
+        }
+        if (!rows[row].add(column, weight)) {
+            return false;
+        }
+        edgeSize++;
+        return true;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the vertex count.
+     */
+    @Override
+    public int vertexSize() {
+        return map.size();
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the edge count
+     */
+    @Override
+    public int edgeSize() {
+        return edgeSize;
+    }
+
+    /**
+     * Reports whether a vertex is in the graph or not.
+     *
+     * @param vertex a vertex to search for
+     * @return true if the vertex is in the graph, or false otherwise
+     */
+    @Override
+    public boolean containsVertex(V vertex) {
+        return map.containsVertex(vertex);
+    }
+
+    private CompressedRow rowOf(V source) {
+        int row = map.indexOf(source);
+        return row == -1 ? null : rows[row];
+    }
+
+    /**
+     * Reports whether an edge is in the graph or not.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return true if edge is in the graph, or false otherwise
+     */
+    @Override
+    public boolean containsEdge(V source, V destination) {
+        CompressedRow row = rowOf(source);
+        int column = map.indexOf(destination);
+        return row != null && column != -1 && row.contains(column);
+    }
+
+    /**
+     * Returns the edge weight of an edge in the graph.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return the edge weight, or -1 if the edge weight is not found
+     */
+    @Override
+    public int edgeWeight(V source, V destination) {
+        CompressedRow row = rowOf(source);
+        int column = map.indexOf(destination);
+        return row == null || column == -1 ? -1 : row.weight(column);
+    }
+
+    /**
+     * Returns the vertices that both vertices have an edge to, by intersecting their
+     * compressed rows.
+     *
+     * @param first the first source vertex
+     * @param second the second source vertex
+     * @return the common out-neighbors, empty if either vertex is not in the graph
+     */
+    public Set<V> commonOutNeighbors(V first, V second) {
+        CompressedRow a = rowOf(first);
+        CompressedRow b = rowOf(second);
+        if (a == null || b == null) {
+            return new HashSet<>();
+        }
+        return verticesOf(a.and(b));
+    }
+
+    /**
+     * Returns the vertices that either vertex has an edge to, by uniting their
+     * compressed rows.
+     *
+     * @param first the first source vertex
+     * @param second the second source vertex
+     * @return the combined out-neighbors; a vertex that is not in the graph contributes none
+     */
+    public Set<V> outNeighborUnion(V first, V second) {
+        CompressedRow a = rowOf(first);
+        CompressedRow b = rowOf(second);
+        if (a == null || b == null) {
+            return verticesOf(a == null ? b : a);
+        }
+        return verticesOf(a.or(b));
+    }
+
+    private Set<V> verticesOf(CompressedRow row) {
+        Set<V> set = new HashSet<>();
+        if (row != null) {
+            for (int j = row.next(0); j != -1; j = row.next(j + 1)) {
+                set.add(map.vertexAt(j));
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Returns a set with all vertices in the graph.
+     *
+     * @return a vertex set
+     */
+    @Override
+    public Set<V> vertices() {
+        Set<V> newSet = new HashSet<>();
+        for (int i = 0; i < nextIndex; i++) {
+            V vertex = map.vertexAt(i);
+            if (vertex != null) {
+                newSet.add(vertex);
+            }
+        }
+        return newSet;
+    }
+
+    /**
+     * Returns a set with all edges in the graph.
+     *
+     * @return an edge set
+     */
+    @Override
+    public Set<Edge<V>> edges() {
+        Set<Edge<V>> set = new HashSet<>();
+        for (int i = 0; i < nextIndex; i++) {
+            V source = map.vertexAt(i);
+            if (source != null) {
+                set.addAll(outEdges(source));
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Returns the edges leaving a vertex.
+     *
+     * @param source the source vertex
+     * @return the out-edges of the vertex, empty if the vertex is not in the graph
+     */
+    @Override
+    public List<Edge<V>> outEdges(V source) {
+        List<Edge<V>> list = new ArrayList<>();
+        CompressedRow row = rowOf(source);
+        if (row == null) {
+            return list;
+        }
+        for (int j = row.next(0); j != -1; j = row.next(j + 1)) {
+            list.add(new Edge<>(source, map.vertexAt(j), row.weight(j)));
+        }
+        return list;
+    }
+
+    /**
+     * Removes a vertex from the graph, along with every edge into or out of it. Its
+     * index is reused by the next vertex added.
+     *
+     * @param vertex the vertex to search for and remove
+     * @return true if the vertex was found and removed, otherwise false
+     */
+    @Override
+    public boolean removeVertex(V vertex) {
+        int index = map.remove(vertex);
+        if (index == -1) {
+            return false;
+        }
+        if (rows[index] != null) {
+            edgeSize -= rows[index].cardinality();
+            rows[index] = null;
+        }
+        for (int i = 0; i < nextIndex; i++) {
+            if (rows[i] != null && rows[i].remove(index)) {
+                edgeSize--;
+            }
+        }
+        stack.push(index);
+        return true;
+    }
+
+    /**
+     * Removes a vertex from the graph.
+     *
+     * @param source the source vertex of the edge to search for and remove
+     * @param destination the destination vertex of the edge to search for and remove
+     * @return true if the edge was found and removed, otherwise false
+     */
+    @Override
+    public boolean removeEdge(V source, V destination) {
+        CompressedRow row = rowOf(source);
+        int column = map.indexOf(destination);
+        if (row == null || column == -1 || !row.remove(column)) {
+            return false;
+        }
+        edgeSize--;
+        return true;
+    }
+
+    /**
+     * Converts every row to its smallest representation. Worth calling after a bulk
+     * load, when rows have stopped changing.
+     */
+    public void optimize() {
+        for (int i = 0; i < nextIndex; i++) {
+            if (rows[i] != null) {
+                rows[i].optimize();
+            }
+        }
+    }
+
+    /**
+     * Removes all vertices and edges from the graph.
+     */
+    @Override
+    public void clear() {
+        map.clear();
+        stack.clear();
+        rows = new CompressedRow[DirectedGraph.DEFAULT_CAPACITY];
+        nextIndex = 0;
+        edgeSize = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedDirectedGraph{" +
+            "map=" + map +
+            ", vertexSize=" + vertexSize() +
+            ", edgeSize=" + edgeSize +
+            '}';
+    }
+}
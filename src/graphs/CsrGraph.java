@@ -0,0 +1,256 @@
+package graphs;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.stream.IntStream;
+import structures.VertexIndex;
+
+/**
+ * An immutable snapshot of a directed graph in compressed sparse row form. The
+ * out-edges of vertex {@code i} occupy {@code targets[offsets[i]]} up to (but not
+ * including) {@code targets[offsets[i + 1]]}, sorted by destination index, with
+ * their weights at the same positions in {@code weights}.
+ *
+ * Snapshots are created with {@link DirectedGraph#toCsr()}. Every method that
+ * would change the graph throws an UnsupportedOperationException.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class CsrGraph<V> implements IGraph<V> {
+
+    private final VertexIndex<V> map;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    CsrGraph(VertexIndex<V> map, int[] offsets, int[] targets, int[] weights) {
+        this.map = map;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Not supported, the snapshot is read-only.
+     *
+     * @param vertex the new vertex
+     * @return never returns normally
+     */
+    @Override
+    public boolean addVertex(V vertex) {
+        throw new UnsupportedOperationException("CSR snapshots are read-only");
+    }
+
+    /**
+     * Not supported, the snapshot is read-only.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight
+     * @return never returns normally
+     */
+    @Override
+    public boolean addEdge(V source, V destination, int weight) {
+        throw new UnsupportedOperationException("CSR snapshots are read-only");
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the vertex count.
+     */
+    @Override
+    public int vertexSize() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the edge count
+     */
+    @Override
+    public int edgeSize() {
+        return targets.length;
+    }
+
+    /**
+     * Reports whether a vertex is in the graph or not.
+     *
+     * @param vertex a vertex to search for
+     * @return true if the vertex is in the graph, or false otherwise
+     */
+    @Override
+    public boolean containsVertex(V vertex) {
+        return map.containsVertex(vertex);
+    }
+
+    /**
+     * Reports whether an edge is in the graph or not.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return true if edge is in the graph, or false otherwise
+     */
+    @Override
+    public boolean containsEdge(V source, V destination) {
+        return find(source, destination) >= 0;
+    }
+
+    /**
+     * Returns the edge weight of an edge in the graph.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return the edge weight, or -1 if the edge weight is not found
+     */
+    @Override
+    public int edgeWeight(V source, V destination) {
+        int position = find(source, destination);
+        return position < 0 ? -1 : weights[position];
+    }
+
+    private int find(V source, V destination) {
+        int row = map.indexOf(source);
+        int column = map.indexOf(destination);
+        if (row == -1 || column == -1) {
+            return -1;
+        }
+        int position = Arrays.binarySearch(targets, offsets[row], offsets[row + 1], column);
+        return position < 0 ? -1 : position;
+    }
+
+    /**
+     * Returns the number of edges leaving a vertex.
+     *
+     * @param vertex the source vertex
+     * @return the out-degree, or -1 if the vertex is not in the graph
+     */
+    public int outDegree(V vertex) {
+        int row = map.indexOf(vertex);
+        return row == -1 ? -1 : offsets[row + 1] - offsets[row];
+    }
+
+    /**
+     * Returns the vertex at a row index, as reported by outNeighbors() and
+     * forEachOutEdge(). Indices run from 0 to vertexSize() - 1.
+     *
+     * @param index a vertex index
+     * @return the vertex, or null if no vertex has the index
+     */
+    public V vertexAt(int index) {
+        return map.vertexAt(index);
+    }
+
+    /**
+     * Iterates over the indices of a vertex's successors, in ascending order, by
+     * walking the vertex's slice of the targets array. The indices are turned back
+     * into vertices with {@link #vertexAt(int)}.
+     *
+     * @param source the source vertex
+     * @return an iterator over successor indices, empty if the vertex is not in the graph
+     */
+    public PrimitiveIterator.OfInt outNeighbors(V source) {
+        int row = map.indexOf(source);
+        if (row == -1) {
+            return IntStream.empty().iterator();
+        }
+        return Arrays.stream(targets, offsets[row], offsets[row + 1]).iterator();
+    }
+
+    /**
+     * Passes each out-edge of a vertex to a consumer as its destination index and
+     * weight. Only the vertex's slice of the arrays is read and no Edge objects are
+     * created.
+     *
+     * @param source the source vertex
+     * @param action receives the destination index and weight of each edge
+     * @return true if the vertex is in the graph, otherwise false
+     */
+    public boolean forEachOutEdge(V source, IntIntConsumer action) {
+        int row = map.indexOf(source);
+        if (row == -1) {
+            return false;
+        }
+        for (int k = offsets[row]; k < offsets[row + 1]; k++) {
+            action.accept(targets[k], weights[k]);
+        }
+        return true;
+    }
+
+    /**
+     * Returns a set with all vertices in the graph.
+     *
+     * @return a vertex set
+     */
+    @Override
+    public Set<V> vertices() {
+        Set<V> set = new HashSet<>();
+        for (int i = 0; i < vertexSize(); i++) {
+            set.add(map.vertexAt(i));
+        }
+        return set;
+    }
+
+    /**
+     * Returns a set with all edges in the graph.
+     *
+     * @return an edge set
+     */
+    @Override
+    public Set<Edge<V>> edges() {
+        Set<Edge<V>> set = new HashSet<>();
+        for (int i = 0; i < vertexSize(); i++) {
+            V source = map.vertexAt(i);
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                set.add(new Edge<>(source, map.vertexAt(targets[k]), weights[k]));
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Not supported, the snapshot is read-only.
+     *
+     * @param vertex the vertex to search for and remove
+     * @return never returns normally
+     */
+    @Override
+    public boolean removeVertex(V vertex) {
+        throw new UnsupportedOperationException("CSR snapshots are read-only");
+    }
+
+    /**
+     * Not supported, the snapshot is read-only.
+     *
+     * @param source the source vertex of the edge to search for and remove
+     * @param destination the destination vertex of the edge to search for and remove
+     * @return never returns normally
+     */
+    @Override
+    public boolean removeEdge(V source, V destination) {
+        throw new UnsupportedOperationException("CSR snapshots are read-only");
+    }
+
+    /**
+     * Not supported, the snapshot is read-only.
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("CSR snapshots are read-only");
+    }
+
+    @Override
+    public String toString() {
+        return "CsrGraph{" +
+            "map=" + map +
+            ", offsets=" + Arrays.toString(offsets) +
+            ", targets=" + Arrays.toString(targets) +
+            ", weights=" + Arrays.toString(weights) +
+            '}';
+    }
+}
@@ -1,59 +1,390 @@
 package graphs;
 
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.Stack;
-import structures.Bijection;
+import java.util.function.Consumer;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import structures.BitMatrix;
+import structures.IntWeightMatrix;
+import structures.MappedWeightMatrix;
+import structures.VertexIndex;
+import structures.WeightMatrix;
 
 /**
+ * A directed, weighted graph backed by an adjacency matrix. Edge existence is
+ * tracked in a bit matrix, so containsEdge() and row scans never touch the weights,
+ * and a zeroed weight matrix is already a valid empty graph.
+ *
+ * Weights live in a {@link WeightMatrix}. By default this is an
+ * {@link IntWeightMatrix}, a single contiguous row-major int array (split into
+ * row chunks past 46340 vertices, when the cells no longer fit in one array); other
+ * implementations can be passed to the constructor to move the weights elsewhere,
+ * for example off the heap. The on-heap matrices come in byte, short, int and long
+ * widths; when an edge arrives whose weight does not fit, the matrix is promoted
+ * to the next width that can hold it. Weights too large for an int are read with
+ * edgeWeightAsLong(); the int-based methods throw an ArithmeticException for them.
+ * Subclasses {@link DoubleDirectedGraph} and {@link FloatDirectedGraph} store
+ * floating-point weights instead, which the int-based methods see rounded to whole
+ * numbers. Every graph reads its weights exactly as doubles through
+ * edgeWeightAsDouble(), {@link #forEachEdgeAsDouble(DoubleEdgeVisitor)},
+ * {@link #forEachOutEdgeAsDouble(Object, IntDoubleConsumer)} and
+ * {@link #shortestPathDistances(Object)}.
+ *
+ * Predecessor queries scan a column of the matrix unless the reverse index is
+ * turned on with {@link #setReverseIndex(boolean)}, which keeps a transposed copy
+ * of the bit matrix so that a column can be read as a row. Out- and in-degrees
+ * are counted per vertex as edges change, so they are read in O(1) either way.
+ *
+ * Callers that touch the same vertices repeatedly can resolve each one to its int
+ * id once with {@link #vertexId(Object)} and use the *ById methods, which index the
+ * matrix directly without hashing. See vertexId() for how long an id stays valid.
+ *
  * @param <V> Vertex type
  * @author Jhakon Pappoe
  * @version 0.1
  */
-public class DirectedGraph<V> implements IGraph<V> {
+public class DirectedGraph<V> implements AdjacencyGraph<V> {
 
     private Stack<Integer> stack = new Stack<>();
-    private Bijection<V, Integer> map = new Bijection<>();
-    private int[][] matrix;
+    private VertexIndex<V> map = new VertexIndex<>();
+    private WeightMatrix matrix;
+    private BitMatrix present;
+    private BitMatrix incoming;
+    private int[] outDegrees;
+    private int[] inDegrees;
+    private int capacity;
+    private int nextIndex;
     private int edgeSize;
     private int vertexSize;
+    private double growthFactor = 2;
+    private int growthStep;
+    private int modCount;
+    private Set<V> vertexView;
+    private Set<Edge<V>> edgeView;
+
+    static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * The weight computeWeight() and mergeWeight() use for an edge that does not exist.
+     * A function passed to them receives it for an absent edge and returns it to remove
+     * the edge.
+     */
+    public static final int NO_EDGE = -1;
 
     /**
      * Creates a new graph with space initially for 10 vertices.
      */
     public DirectedGraph() {
-        int rows = 10;
-        int columns = 10;
-        matrix = new int[rows][columns];
-        emptyWeights();
+        this(new IntWeightMatrix(DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Creates a new graph with enough space for the requested number of vertices.
+     * Loading a graph of known size this way avoids every intermediate resize.
+     *
+     * @param initialSize the initial number of rows/columns in adjacency matrix, at least 1
+     */
+    public DirectedGraph(int initialSize) {
+        this(new IntWeightMatrix(initialSize));
+    }
+
+    /**
+     * Creates a new graph that stores its edge weights in the given matrix. The graph
+     * starts with space for as many vertices as the matrix has rows and resizes the
+     * matrix as it grows.
+     *
+     * @param weights the weight storage, which must have at least one row
+     */
+    public DirectedGraph(WeightMatrix weights) {
+        this(weights, weights.capacity());
+    }
+
+    /**
+     * Creates a new graph.
+     *
+     * @param weights the weight storage, or null to keep only the bit matrix
+     * @param capacity the initial number of rows/columns in the adjacency matrix
+     */
+    DirectedGraph(WeightMatrix weights, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Graph must have space for at least one vertex");
+        }
+        this.capacity = capacity;
+        matrix = weights;
+        present = new BitMatrix(capacity);
+        outDegrees = new int[capacity];
+        inDegrees = new int[capacity];
     }
 
-    private void emptyWeights() {
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix.length; j++) {
-                matrix[i][j] = -1;
+    /**
+     * Reopens a graph whose weights were kept in a memory-mapped file. The edges are
+     * read back from the file rather than added one at a time, and rows the file's
+     * row index reports as empty are skipped without reading their cells.
+     *
+     * The vertices are not stored in the file, so they must be given again by index:
+     * the vertex at position i of the list takes row and column i of the matrix, the
+     * same index {@link #vertexAt(int)} reported for it before the file was closed.
+     * Because removed vertices free their index for reuse, this is not the order the
+     * vertices were added in. A null entry marks a free index, which the next vertex
+     * added will take. Listing vertexAt(i) for every i below capacity() gives a valid
+     * list; trailing nulls may be left off.
+     *
+     * @param weights the mapped weight matrix of the graph
+     * @param vertices the graph's vertices by index, with null for free indices
+     * @param <V> Vertex type
+     * @return the reopened graph
+     * @throws IllegalArgumentException if the list is longer than the matrix, holds a
+     *         vertex twice, or a cell holds a weight while its row or column has no vertex
+     */
+    public static <V> DirectedGraph<V> open(MappedWeightMatrix weights, List<V> vertices) {
+        if (vertices.size() > weights.capacity()) {
+            throw new IllegalArgumentException("Matrix has rows for only " + weights.capacity() + " vertices");
+        }
+        DirectedGraph<V> graph = new DirectedGraph<>(weights);
+        for (int i = 0; i < vertices.size(); i++) {
+            V vertex = vertices.get(i);
+            if (vertex == null) {
+                continue;
+            }
+            if (!graph.map.add(vertex, i)) {
+                throw new IllegalArgumentException("Duplicate vertex " + vertex);
+            }
+            graph.vertexSize++;
+        }
+        graph.nextIndex = vertices.size();
+        // hand out the lowest free index first
+        for (int i = vertices.size() - 1; i >= 0; i--) {
+            if (vertices.get(i) == null) {
+                graph.stack.push(i);
+            }
+        }
+
+        for (int i = 0; i < weights.capacity(); i++) {
+            // the row index lets empty rows be skipped without reading their cells
+            int remaining = weights.rowSize(i);
+            for (int j = 0; remaining > 0 && j < weights.capacity(); j++) {
+                if (weights.contains(i, j)) {
+                    remaining--;
+                    if (!graph.map.containsIndex(i) || !graph.map.containsIndex(j)) {
+                        throw new IllegalArgumentException("Cell (" + i + ", " + j
+                                + ") holds a weight but no vertex was given for its row or column");
+                    }
+                    graph.markCell(i, j);
+                }
             }
         }
+        return graph;
     }
 
-//    /**
-//     * Creates a new graph with enough space for the requested number of vertices.
-//     *
-//     * @param initialSize the initial number of rows/columns in adjacency matrix
-//
-//    public DirectedGraph(int initialSize) {
-//        matrix = new int[initialSize][initialSize];
-//    }
+    private long weightAt(int row, int column) {
+        return matrix == null ? UnweightedDirectedGraph.WEIGHT : matrix.get(row, column);
+    }
+
+    private int intWeightAt(int row, int column) {
+        return Math.toIntExact(toLongWeight(weightAt(row, column)));
+    }
+
+    // the current weight for an int-based update, which must not lose precision
+    private int exactIntWeightAt(int row, int column) {
+        return Math.toIntExact(toExactLongWeight(weightAt(row, column)));
+    }
+
+    /**
+     * Converts a stored cell to the weight it holds. Subclasses that encode their
+     * weights in the cells override this together with {@link #toDoubleWeight(long)}.
+     *
+     * @param stored the value read from the weight matrix
+     * @return the weight, rounded to the nearest whole number if it is not one
+     */
+    long toLongWeight(long stored) {
+        return stored;
+    }
+
+    /**
+     * Converts a stored cell to the weight it holds for an update that will write the
+     * weight back, so that no precision is lost.
+     *
+     * @param stored the value read from the weight matrix
+     * @return the weight, throwing an ArithmeticException if it is not a whole number
+     */
+    long toExactLongWeight(long stored) {
+        return toLongWeight(stored);
+    }
+
+    /**
+     * Converts a validated, non-negative floating-point weight to the value stored in
+     * its cell. Only subclasses with floating-point weights support this.
+     *
+     * @param weight the weight
+     * @return the value to store in the weight matrix
+     */
+    long toStoredDoubleWeight(double weight) {
+        throw new UnsupportedOperationException("Graph does not store floating-point weights");
+    }
+
+    /**
+     * Converts a validated, non-negative whole-number weight to the value stored in its
+     * cell. The inverse of {@link #toLongWeight(long)}.
+     *
+     * @param weight the weight
+     * @return the value to store in the weight matrix
+     */
+    long toStoredWeight(long weight) {
+        return weight;
+    }
+
+    /**
+     * Converts a stored cell to the weight it holds, as a double.
+     *
+     * @param stored the value read from the weight matrix
+     * @return the weight
+     */
+    double toDoubleWeight(long stored) {
+        return stored;
+    }
+
+    private int maxCapacity() {
+        int maxCapacity = BitMatrix.MAX_CAPACITY;
+        if (matrix != null) {
+            maxCapacity = Math.min(maxCapacity, matrix.maxCapacity());
+        }
+        return maxCapacity;
+    }
 
     private void resize() {
-        int[][] oldMatrix = matrix;
-        int newSize = matrix.length * 2;
-        matrix = new int[newSize][newSize];
-        emptyWeights();
-        for (int i = 0; i < oldMatrix.length; i++) {
-            for (int j = 0; j < oldMatrix.length; j++) {
-                matrix[i][j] = oldMatrix[i][j];
+        int maxCapacity = maxCapacity();
+        if (capacity == maxCapacity) {
+            throw new IllegalStateException("Graph cannot hold more than " + maxCapacity + " vertices");
+        }
+        long grown = growthStep > 0 ? (long) capacity + growthStep : (long) Math.ceil(capacity * growthFactor);
+        resize((int) Math.min(Math.max(grown, capacity + 1L), maxCapacity));
+    }
+
+    private void resize(int newCapacity) {
+        capacity = newCapacity;
+        present.resize(newCapacity);
+        outDegrees = Arrays.copyOf(outDegrees, newCapacity);
+        inDegrees = Arrays.copyOf(inDegrees, newCapacity);
+        if (incoming != null) {
+            incoming.resize(newCapacity);
+        }
+        if (matrix != null) {
+            matrix.resize(newCapacity);
+        }
+    }
+
+    /**
+     * Returns the number of vertices the graph can hold before its adjacency matrix
+     * has to grow.
+     *
+     * @return the number of rows/columns in the adjacency matrix
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Grows the adjacency matrix, if needed, so that it holds at least the given number
+     * of vertices. Growing once up front replaces the repeated resizes of adding the
+     * vertices one at a time.
+     *
+     * @param minCapacity the number of vertices the graph must be able to hold, throws an
+     *                    IllegalArgumentException if it exceeds the storage's maximum
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > maxCapacity()) {
+            throw new IllegalArgumentException("Graph cannot hold more than " + maxCapacity() + " vertices");
+        }
+        if (minCapacity > capacity) {
+            resize(minCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the adjacency matrix to the highest index still in use. Vertices keep their
+     * indices; use {@link #compact()} to also close gaps left by removed vertices.
+     */
+    public void trimToSize() {
+        while (nextIndex > 0 && !map.containsIndex(nextIndex - 1)) {
+            nextIndex--;
+        }
+        stack.removeIf(index -> index >= nextIndex);
+        if (nextIndex < capacity) {
+            resize(Math.max(nextIndex, 1));
+        }
+    }
+
+    /**
+     * Makes the adjacency matrix grow by multiplying its size by a factor whenever it
+     * runs out of space. This is the default policy, with a factor of 2.
+     *
+     * @param factor the growth factor, throws an IllegalArgumentException unless it is
+     *               greater than 1
+     */
+    public void setGrowthFactor(double factor) {
+        if (!(factor > 1)) {
+            throw new IllegalArgumentException("Growth factor must be greater than 1");
+        }
+        growthFactor = factor;
+        growthStep = 0;
+    }
+
+    /**
+     * Makes the adjacency matrix grow by a fixed number of rows/columns whenever it runs
+     * out of space.
+     *
+     * @param step the number of vertices to add space for, throws an
+     *             IllegalArgumentException unless it is positive
+     */
+    public void setGrowthStep(int step) {
+        if (step < 1) {
+            throw new IllegalArgumentException("Growth step must be positive");
+        }
+        growthStep = step;
+    }
+
+    /**
+     * Turns the reverse index on or off. While it is on, a transposed bit matrix is
+     * kept in sync with every edge change, so that inNeighbors() and removeVertex()
+     * read a vertex's predecessors from one row instead of walking a
+     * column across every row of the matrix. It costs one more bit per cell.
+     *
+     * @param maintained true to build and maintain the index, false to drop it
+     */
+    public void setReverseIndex(boolean maintained) {
+        if (!maintained) {
+            incoming = null;
+        } else if (incoming == null) {
+            incoming = new BitMatrix(capacity);
+            rebuildReverseIndex();
+        }
+    }
+
+    private void rebuildReverseIndex() {
+        incoming.clear();
+        for (int i = 0; i < nextIndex; i++) {
+            for (int j = present.nextSetBit(i, 0); j != -1; j = present.nextSetBit(i, j + 1)) {
+                incoming.set(j, i);
             }
         }
     }
@@ -62,19 +393,28 @@ public class DirectedGraph<V> implements IGraph<V> {
      * Adds a new vertex to the graph. If the vertex already exists, then no change is made to the
      * graph.
      *
-     * @param vertex the new vertex
+     * @param vertex the new vertex, throws a NullPointerException if null
      * @return true if the vertex was added, otherwise false
      */
     @Override
     public boolean addVertex(V vertex) {
+        // reject null before an index is taken, so a freed index is not lost
+        Objects.requireNonNull(vertex, "Vertex cannot be null");
         if (this.containsVertex(vertex)) {
             return false;
         }
-        if (vertexSize() == matrix.length) {
-            resize();
+        int index;
+        if (!stack.isEmpty()) {
+            index = stack.pop();
+        } else {
+            if (nextIndex == capacity) {
+                resize();
+            }
+            index = nextIndex++;
         }
-        map.add(vertex, vertexSize());
+        map.add(vertex, index);
         vertexSize++;
+        modCount++;
         return true;
     }
 
@@ -91,20 +431,308 @@ public class DirectedGraph<V> implements IGraph<V> {
      */
     @Override
     public boolean addEdge(V source, V destination, int weight) throws IllegalArgumentException {
+        return addEdge(source, destination, (long) weight);
+    }
+
+    /**
+     * Adds a new edge with a weight that may not fit in an int. If the edge already exists,
+     * then no change is made to the graph. If the weight matrix cannot hold the weight, it is
+     * widened first.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     *               or the weight matrix cannot be widened to hold it
+     * @return true if the edge was added, otherwise false
+     */
+    public boolean addEdge(V source, V destination, long weight) throws IllegalArgumentException {
         if (weight < 0) {
             throw new IllegalArgumentException("Weight cannot be negative");
         }
+        return putEdge(source, destination, weight);
+    }
+
+    /**
+     * Adds a new edge whose weight has already been validated and encoded for storage.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param stored the value to store in the edge's cell
+     * @return true if the edge was added, otherwise false
+     */
+    boolean putEdge(V source, V destination, long stored) {
+        return putCell(map.indexOf(source), map.indexOf(destination), stored);
+    }
 
-        if (containsEdge(source, destination)) {
+    private boolean putCell(int row, int column, long stored) {
+        if (!map.containsIndex(row) || !map.containsIndex(column) || present.get(row, column)) {
             return false;
         }
 
-        if (map.getValue(source) != null && map.getValue(destination) != null) {
-            matrix[map.getValue(source)][map.getValue(destination)] = weight;
-            edgeSize++;
-            return true;
+        if (matrix != null) {
+            if (stored > matrix.maxWeight()) {
+                matrix = matrix.widen(stored);
+            }
+            matrix.set(row, column, stored);
+        }
+        markCell(row, column);
+        modCount++;
+        return true;
+    }
+
+    private int resolve(V vertex) {
+        int index = map.indexOf(vertex);
+        if (index == -1) {
+            throw new IllegalArgumentException("Vertex " + vertex + " is not in the graph");
+        }
+        return index;
+    }
+
+    private void writeCell(int row, int column, long stored) {
+        if (matrix != null) {
+            if (stored > matrix.maxWeight()) {
+                matrix = matrix.widen(stored);
+            }
+            matrix.set(row, column, stored);
+        }
+        if (markCell(row, column)) {
+            modCount++;
+        }
+    }
+
+    // stores a computed weight, where NO_EDGE removes the edge and any other negative
+    // weight, such as one that overflowed, is rejected before the graph is changed
+    private int applyWeight(int row, int column, int weight) {
+        if (weight == NO_EDGE) {
+            if (present.get(row, column)) {
+                clearCell(row, column);
+                modCount++;
+            }
+            return NO_EDGE;
+        }
+        if (weight < 0) {
+            throw new IllegalArgumentException("Computed weight " + weight + " is negative");
+        }
+        writeCell(row, column, toStoredWeight(weight));
+        // an unweighted graph keeps the edge but not the weight
+        return matrix == null ? UnweightedDirectedGraph.WEIGHT : weight;
+    }
+
+    /**
+     * Adds an edge, or replaces the weight of the edge if it already exists. Both
+     * vertices are looked up once and the cell is written once.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     * @return the previous weight, or -1 if the edge is new; throws an
+     *         IllegalArgumentException if either vertex is not in the graph, and an
+     *         ArithmeticException, before anything is written, if the previous weight
+     *         does not fit in an int or is not a whole number
+     */
+    public int upsertEdge(V source, V destination, int weight) throws IllegalArgumentException {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        int row = resolve(source);
+        int column = resolve(destination);
+        int previous = present.get(row, column) ? exactIntWeightAt(row, column) : -1;
+        writeCell(row, column, toStoredWeight(weight));
+        return previous;
+    }
+
+    /**
+     * Replaces the weight of an edge with a value computed from its current weight,
+     * like Map.compute(). The function receives {@link #NO_EDGE} if the edge does not
+     * exist yet; returning NO_EDGE removes the edge, or leaves it absent. Any other
+     * negative result, such as an int that overflowed, is rejected and the graph is
+     * left unchanged.
+     *
+     * The function sees the weight as an int, so it cannot update an edge whose weight
+     * has been widened past an int, or a fractional weight in a
+     * {@link DoubleDirectedGraph} or {@link FloatDirectedGraph}; those graphs offer
+     * computeWeightAsDouble() instead.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param remapping computes the new weight from the current one
+     * @return the new weight as edgeWeight() will report it, which is always
+     *         {@link UnweightedDirectedGraph#WEIGHT} in an unweighted graph, or
+     *         NO_EDGE if the edge is now absent; throws an
+     *         IllegalArgumentException if either vertex is not in the graph or the
+     *         result is negative but not NO_EDGE, and an ArithmeticException if the
+     *         current weight does not fit in an int or is not a whole number
+     */
+    public int computeWeight(V source, V destination, IntUnaryOperator remapping) {
+        int row = resolve(source);
+        int column = resolve(destination);
+        int current = present.get(row, column) ? exactIntWeightAt(row, column) : NO_EDGE;
+        return applyWeight(row, column, remapping.applyAsInt(current));
+    }
+
+    /**
+     * Combines a value into the weight of an edge, like Map.merge(). If the edge does
+     * not exist, it is added with the value as its weight; otherwise its weight becomes
+     * {@code merger.applyAsInt(weight, value)}. A result of {@link #NO_EDGE} removes
+     * the edge; any other negative result is rejected and the graph is left unchanged.
+     * For example {@code mergeWeight(a, b, 1, Math::addExact)} counts occurrences of
+     * the edge, and throws rather than wrapping around if the count overflows.
+     *
+     * As with computeWeight(), an edge whose weight has been widened past an int, or
+     * whose weight is fractional, cannot be merged into.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param value the weight of a new edge, and the second argument to the merger;
+     *              throws an IllegalArgumentException if negative
+     * @param merger combines the current weight with the value
+     * @return the new weight as edgeWeight() will report it, which is always
+     *         {@link UnweightedDirectedGraph#WEIGHT} in an unweighted graph, or
+     *         NO_EDGE if the edge is now absent; throws an
+     *         IllegalArgumentException if either vertex is not in the graph or the
+     *         result is negative but not NO_EDGE, and an ArithmeticException if the
+     *         current weight does not fit in an int or is not a whole number
+     */
+    public int mergeWeight(V source, V destination, int value, IntBinaryOperator merger) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        int row = resolve(source);
+        int column = resolve(destination);
+        int weight = present.get(row, column) ? merger.applyAsInt(exactIntWeightAt(row, column), value) : value;
+        return applyWeight(row, column, weight);
+    }
+
+    /**
+     * Adds an edge with a floating-point weight, or replaces the weight of the edge if
+     * it already exists. Backs upsertEdge() in the floating-point subclasses.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the validated edge weight
+     * @return the previous weight, or NO_EDGE if the edge is new
+     */
+    double upsertDoubleEdge(V source, V destination, double weight) {
+        int row = resolve(source);
+        int column = resolve(destination);
+        double previous = present.get(row, column) ? toDoubleWeight(weightAt(row, column)) : NO_EDGE;
+        writeCell(row, column, toStoredDoubleWeight(weight));
+        return previous;
+    }
+
+    /**
+     * Replaces a floating-point weight with one computed from it, reading and writing
+     * the weight without rounding. Backs computeWeightAsDouble() and
+     * mergeWeightAsDouble() in the floating-point subclasses.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param remapping computes the new weight from the current one, or from NO_EDGE
+     * @return the new weight as stored, or NO_EDGE if the edge is now absent
+     */
+    double computeDoubleWeight(V source, V destination, DoubleUnaryOperator remapping) {
+        int row = resolve(source);
+        int column = resolve(destination);
+        double current = present.get(row, column) ? toDoubleWeight(weightAt(row, column)) : NO_EDGE;
+        double weight = remapping.applyAsDouble(current);
+        if (weight == NO_EDGE) {
+            if (present.get(row, column)) {
+                clearCell(row, column);
+                modCount++;
+            }
+            return NO_EDGE;
+        }
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("Computed weight " + weight + " is negative or NaN");
+        }
+        long stored = toStoredDoubleWeight(weight);
+        writeCell(row, column, stored);
+        return toDoubleWeight(stored);
+    }
+
+    /**
+     * Loads many vertices and edges at once. Edges are given as parallel arrays, where
+     * edge k runs from {@code vertices.get(sources[k])} to
+     * {@code vertices.get(destinations[k])} with weight {@code weights[k]}.
+     *
+     * Unlike repeated addVertex() and addEdge() calls, the matrix is sized once for
+     * all new vertices, every vertex is looked up once rather than once per edge, and
+     * cells are written directly. Vertices already in the graph are reused, and edges
+     * that are duplicates or invalid are skipped and reported in the summary.
+     *
+     * @param vertices the vertices to load; throws a NullPointerException, before anything
+     *                 is added, if one is null
+     * @param sources the position in the vertex list of each edge's source
+     * @param destinations the position in the vertex list of each edge's destination
+     * @param weights the weight of each edge
+     * @return a summary of what was added and skipped; throws an IllegalArgumentException if
+     *         the edge arrays differ in length or the vertices do not fit in the graph
+     */
+    public LoadSummary addAll(List<? extends V> vertices, int[] sources, int[] destinations, int[] weights) {
+        if (sources.length != destinations.length || sources.length != weights.length) {
+            throw new IllegalArgumentException("Edge arrays must have the same length");
+        }
+
+        // check everything that can fail before the graph is changed
+        int[] index = new int[vertices.size()];
+        int newVertices = 0;
+        for (int i = 0; i < index.length; i++) {
+            V vertex = vertices.get(i);
+            if (vertex == null) {
+                throw new NullPointerException("Vertex at position " + i + " is null");
+            }
+            index[i] = map.indexOf(vertex);
+            if (index[i] == -1) {
+                newVertices++;
+            }
+        }
+        long maxWeight = 0;
+        for (int weight : weights) {
+            maxWeight = Math.max(maxWeight, weight);
+        }
+        long maxStored = toStoredWeight(maxWeight);
+        if (matrix != null && maxStored > matrix.maxWeight()) {
+            matrix = matrix.widen(maxStored);
+        }
+        ensureCapacity(nextIndex + Math.max(newVertices - stack.size(), 0));
+
+        int verticesAdded = 0;
+        for (int i = 0; i < index.length; i++) {
+            if (index[i] == -1) {
+                // look again, the vertex may appear earlier in the same list
+                V vertex = vertices.get(i);
+                index[i] = map.indexOf(vertex);
+                if (index[i] == -1) {
+                    index[i] = stack.isEmpty() ? nextIndex++ : stack.pop();
+                    map.add(vertex, index[i]);
+                    vertexSize++;
+                    verticesAdded++;
+                }
+            }
+        }
+
+        BitSet duplicates = new BitSet();
+        BitSet invalid = new BitSet();
+        int edgesAdded = 0;
+        for (int k = 0; k < sources.length; k++) {
+            if (sources[k] < 0 || sources[k] >= index.length || destinations[k] < 0
+                    || destinations[k] >= index.length || weights[k] < 0) {
+                invalid.set(k);
+                continue;
+            }
+            int row = index[sources[k]];
+            int column = index[destinations[k]];
+            if (!markCell(row, column)) {
+                duplicates.set(k);
+                continue;
+            }
+            if (matrix != null) {
+                matrix.set(row, column, toStoredWeight(weights[k]));
+            }
+            edgesAdded++;
         }
-        return false;
+        modCount++;
+        return new LoadSummary(verticesAdded, edgesAdded, duplicates.stream().toArray(), invalid.stream().toArray());
     }
 
     /**
@@ -135,7 +763,7 @@ public class DirectedGraph<V> implements IGraph<V> {
      */
     @Override
     public boolean containsVertex(V vertex) {
-        return map.containsKey(vertex);
+        return map.containsVertex(vertex);
     }
 
     /**
@@ -147,10 +775,7 @@ public class DirectedGraph<V> implements IGraph<V> {
      */
     @Override
     public boolean containsEdge(V source, V destination) {
-        if (map.getValue(source) == null || map.getValue(destination) == null) {
-            return false;
-        }
-        return (matrix[map.getValue(source)][map.getValue(destination)] != -1);
+        return containsEdgeById(map.indexOf(source), map.indexOf(destination));
     }
 
     /**
@@ -158,11 +783,90 @@ public class DirectedGraph<V> implements IGraph<V> {
      *
      * @param source the source vertex of the edge
      * @param destination the destination vertex of the edge
-     * @return the edge weight, or -1 if the edge weight is not found
+     * @return the edge weight, or -1 if the edge weight is not found; throws an
+     *         ArithmeticException if the weight does not fit in an int
      */
     @Override
     public int edgeWeight(V source, V destination) {
-        return matrix[map.getValue(source)][map.getValue(destination)];
+        return Math.toIntExact(edgeWeightAsLong(source, destination));
+    }
+
+    /**
+     * Returns the edge weight of an edge in the graph, including weights that do not fit
+     * in an int.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return the edge weight, or -1 if the edge weight is not found
+     */
+    public long edgeWeightAsLong(V source, V destination) {
+        int row = map.indexOf(source);
+        int column = map.indexOf(destination);
+        if (row == -1 || column == -1 || !present.get(row, column)) {
+            return -1;
+        }
+        return toLongWeight(weightAt(row, column));
+    }
+
+    /**
+     * Returns the edge weight of an edge in the graph as a double, which holds the
+     * weights of every kind of graph.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return the edge weight, or NaN if the edge weight is not found
+     */
+    public double edgeWeightAsDouble(V source, V destination) {
+        int row = map.indexOf(source);
+        int column = map.indexOf(destination);
+        if (row == -1 || column == -1 || !present.get(row, column)) {
+            return Double.NaN;
+        }
+        return toDoubleWeight(weightAt(row, column));
+    }
+
+    /**
+     * Finds the length of the shortest path from a vertex to every vertex it can reach,
+     * using Dijkstra's algorithm over the rows of the matrix. Weights are read as
+     * doubles, so this works the same for int, long, float and double weights.
+     *
+     * @param source the vertex to start from
+     * @return the shortest distance to each reachable vertex, including 0 for the source
+     *         itself; empty if the source is not in the graph
+     */
+    public Map<V, Double> shortestPathDistances(V source) {
+        Map<V, Double> distances = new HashMap<>();
+        int start = map.indexOf(source);
+        if (start == -1) {
+            return distances;
+        }
+        double[] distance = new double[nextIndex];
+        boolean[] settled = new boolean[nextIndex];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        distance[start] = 0;
+
+        // a linear scan for the closest vertex is O(V^2) overall, the same as reading the matrix
+        while (true) {
+            int closest = -1;
+            for (int i = 0; i < nextIndex; i++) {
+                if (!settled[i] && distance[i] != Double.POSITIVE_INFINITY
+                        && (closest == -1 || distance[i] < distance[closest])) {
+                    closest = i;
+                }
+            }
+            if (closest == -1) {
+                break;
+            }
+            settled[closest] = true;
+            distances.put(map.vertexAt(closest), distance[closest]);
+            for (int j = present.nextSetBit(closest, 0); j != -1; j = present.nextSetBit(closest, j + 1)) {
+                double candidate = distance[closest] + toDoubleWeight(weightAt(closest, j));
+                if (candidate < distance[j]) {
+                    distance[j] = candidate;
+                }
+            }
+        }
+        return distances;
     }
 
     /**
@@ -173,8 +877,11 @@ public class DirectedGraph<V> implements IGraph<V> {
     @Override
     public Set<V> vertices() {
         Set<V> newSet = new HashSet<>();
-        for (int i = 0; i < vertexSize; i++) {
-            newSet.add(map.getKey(i));
+        for (int i = 0; i < map.indexBound(); i++) {
+            V vertex = map.vertexAt(i);
+            if (vertex != null) {
+                newSet.add(vertex);
+            }
         }
         return newSet;
     }
@@ -186,35 +893,739 @@ public class DirectedGraph<V> implements IGraph<V> {
      */
     @Override
     public Set<Edge<V>> edges() {
-        Set<Edge<V>> set = new HashSet<>();
+        // sized up front so the set never rehashes while it fills
+        Set<Edge<V>> set = new HashSet<>(edgeSize * 4 / 3 + 1);
 
-        for (int i = 0; i < matrix.length; i++) {
-            for (int j = 0; j < matrix.length; j++) {
-                if (matrix[i][j] != -1) {
-                    Edge<V> newEdge = new Edge<>(map.getKey(i), map.getKey(j), matrix[i][j]);
-                    set.add(newEdge);
-                }
+        for (int i = 0; i < nextIndex; i++) {
+            for (int j = present.nextSetBit(i, 0); j != -1; j = present.nextSetBit(i, j + 1)) {
+                set.add(new Edge<>(map.vertexAt(i), map.vertexAt(j), intWeightAt(i, j)));
             }
         }
         return set;
     }
 
     /**
-     * Removes a vertex from the graph.
+     * Returns a read-only view of the vertices that always reflects the current graph.
+     * Unlike vertices(), nothing is copied: size() and contains() are answered by the
+     * graph's counters and vertex index, and iteration walks the index lazily.
+     * Iterators fail fast with a ConcurrentModificationException if the graph changes
+     * while they are in use.
      *
-     * @param vertex the vertex to search for and remove
-     * @return true if the vertex was found and removed, otherwise false
+     * @return a live vertex set
      */
-    @Override
-    public boolean removeVertex(V vertex) {
-        if (containsVertex(vertex)) {
-            stack.push(map.getValue(vertex));
-            vertexSize--;
-        }
-        return map.removeKey(vertex);
-    }
+    public Set<V> vertexView() {
+        if (vertexView == null) {
+            vertexView = new AbstractSet<V>() {
+                @Override
+                public int size() {
+                    return vertexSize;
+                }
 
-    /**
+                @Override
+                public boolean contains(Object vertex) {
+                    return map.containsVertex(vertex);
+                }
+
+                @Override
+                public Iterator<V> iterator() {
+                    return new ViewIterator<V>() {
+                        private int index = -1;
+
+                        @Override
+                        boolean advance() {
+                            while (++index < nextIndex) {
+                                if (map.containsIndex(index)) {
+                                    return true;
+                                }
+                            }
+                            return false;
+                        }
+
+                        @Override
+                        V current() {
+                            return map.vertexAt(index);
+                        }
+                    };
+                }
+            };
+        }
+        return vertexView;
+    }
+
+    /**
+     * Returns a read-only view of the edges that always reflects the current graph.
+     * Unlike edges(), nothing is copied: size() comes from the edge counter, contains()
+     * is answered by containsEdge(), and iteration scans the bit matrix lazily, one
+     * Edge at a time. Iterators fail fast with a ConcurrentModificationException if
+     * the graph changes while they are in use.
+     *
+     * @return a live edge set; iteration throws an ArithmeticException when it reaches a
+     *         weight that does not fit in an int
+     */
+    public Set<Edge<V>> edgeView() {
+        if (edgeView == null) {
+            edgeView = new AbstractSet<Edge<V>>() {
+                @Override
+                public int size() {
+                    return edgeSize;
+                }
+
+                @Override
+                public boolean contains(Object other) {
+                    if (!(other instanceof Edge)) {
+                        return false;
+                    }
+                    // edges are equal when their vertices are, whatever their weights
+                    Edge<?> edge = (Edge<?>) other;
+                    int row = map.indexOf(edge.getSource());
+                    int column = map.indexOf(edge.getDestination());
+                    return row != -1 && column != -1 && present.get(row, column);
+                }
+
+                @Override
+                public Iterator<Edge<V>> iterator() {
+                    return new ViewIterator<Edge<V>>() {
+                        private int row;
+                        private int column = -1;
+
+                        @Override
+                        boolean advance() {
+                            while (row < nextIndex) {
+                                column = present.nextSetBit(row, column + 1);
+                                if (column != -1) {
+                                    return true;
+                                }
+                                row++;
+                            }
+                            return false;
+                        }
+
+                        @Override
+                        Edge<V> current() {
+                            return new Edge<>(map.vertexAt(row), map.vertexAt(column), intWeightAt(row, column));
+                        }
+                    };
+                }
+            };
+        }
+        return edgeView;
+    }
+
+    /**
+     * Iterates over a live view, looking one element ahead and failing fast if the
+     * graph changes.
+     *
+     * @param <T> Element type
+     */
+    private abstract class ViewIterator<T> implements Iterator<T> {
+        private final int expectedModCount = modCount;
+        private boolean ready;
+        private boolean found;
+
+        // moves to the next element, returning false once there are none
+        abstract boolean advance();
+
+        abstract T current();
+
+        @Override
+        public boolean hasNext() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!ready) {
+                found = advance();
+                ready = true;
+            }
+            return found;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return current();
+        }
+    }
+
+    /**
+     * Passes every edge in the graph to a visitor. Only the rows up to the highest
+     * index in use are scanned, each with nextSetBit(), and no Edge objects or
+     * collections are created, which makes this the cheapest way to walk all edges.
+     *
+     * @param visitor receives the source, destination and weight of each edge; throws an
+     *                ArithmeticException if a weight does not fit in an int
+     */
+    public void forEachEdge(EdgeVisitor<V> visitor) {
+        for (int i = 0; i < nextIndex; i++) {
+            int j = present.nextSetBit(i, 0);
+            if (j == -1) {
+                continue;
+            }
+            V source = map.vertexAt(i);
+            for (; j != -1; j = present.nextSetBit(i, j + 1)) {
+                visitor.visit(source, map.vertexAt(j), intWeightAt(i, j));
+            }
+        }
+    }
+
+    /**
+     * Passes every edge in the graph to a visitor with its weight as a double, in the
+     * same order and at the same cost as {@link #forEachEdge(EdgeVisitor)}. Unlike
+     * forEachEdge(), this reads every weight exactly, including the fractional weights
+     * of a {@link DoubleDirectedGraph} or {@link FloatDirectedGraph}, and never throws.
+     *
+     * @param visitor receives the source, destination and weight of each edge
+     */
+    public void forEachEdgeAsDouble(DoubleEdgeVisitor<V> visitor) {
+        for (int i = 0; i < nextIndex; i++) {
+            int j = present.nextSetBit(i, 0);
+            if (j == -1) {
+                continue;
+            }
+            V source = map.vertexAt(i);
+            for (; j != -1; j = present.nextSetBit(i, j + 1)) {
+                visitor.visit(source, map.vertexAt(j), toDoubleWeight(weightAt(i, j)));
+            }
+        }
+    }
+
+    /**
+     * Returns a stream of the vertices in the graph. The stream splits by index range,
+     * so it can run in parallel. The graph must not change while the stream is in use.
+     *
+     * @return a vertex stream
+     */
+    public Stream<V> vertexStream() {
+        return IntStream.range(0, nextIndex).mapToObj(map::vertexAt).filter(Objects::nonNull);
+    }
+
+    /**
+     * Returns a stream of the edges in the graph, read straight from the matrix
+     * without building edges() first. The stream's spliterator splits the rows into
+     * ranges, so calling parallel() processes blocks of rows on the fork-join pool.
+     * The graph must not change while the stream is in use.
+     *
+     * @return an edge stream; throws an ArithmeticException when it reaches a weight that
+     *         does not fit in an int
+     */
+    public Stream<Edge<V>> edgeStream() {
+        return StreamSupport.stream(new EdgeSpliterator(0, nextIndex), false);
+    }
+
+    /**
+     * Returns a stream of the edge weights in the graph, one per edge, with the same
+     * row-range splitting as {@link #edgeStream()} and no Edge objects. The graph must
+     * not change while the stream is in use.
+     *
+     * @return an edge weight stream; throws an ArithmeticException when it reaches a
+     *         weight that does not fit in an int
+     */
+    public IntStream edgeWeightStream() {
+        return StreamSupport.intStream(new WeightSpliterator(0, nextIndex), false);
+    }
+
+    /**
+     * Walks the edges in a range of rows. Splitting hands the upper half of the rows
+     * not yet started to a new range.
+     */
+    private abstract class RowRange {
+        int row;
+        int column = -1;
+        int end;
+
+        RowRange(int start, int end) {
+            row = start;
+            this.end = end;
+        }
+
+        // moves to the next edge in the range, returning false once there are none
+        boolean advance() {
+            while (row < end) {
+                column = present.nextSetBit(row, column + 1);
+                if (column != -1) {
+                    return true;
+                }
+                row++;
+            }
+            return false;
+        }
+
+        // the first row of the upper half, or -1 if the range is too small to split
+        int splitRow() {
+            int start = column == -1 ? row : row + 1;
+            return end - start < 2 ? -1 : (start + end) >>> 1;
+        }
+
+        public long estimateSize() {
+            return nextIndex == 0 ? 0 : (long) edgeSize * (end - row) / nextIndex;
+        }
+    }
+
+    private class EdgeSpliterator extends RowRange implements Spliterator<Edge<V>> {
+
+        EdgeSpliterator(int start, int end) {
+            super(start, end);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Edge<V>> action) {
+            if (!advance()) {
+                return false;
+            }
+            action.accept(new Edge<>(map.vertexAt(row), map.vertexAt(column), intWeightAt(row, column)));
+            return true;
+        }
+
+        @Override
+        public Spliterator<Edge<V>> trySplit() {
+            int middle = splitRow();
+            if (middle == -1) {
+                return null;
+            }
+            Spliterator<Edge<V>> upper = new EdgeSpliterator(middle, end);
+            end = middle;
+            return upper;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL;
+        }
+    }
+
+    private class WeightSpliterator extends RowRange implements Spliterator.OfInt {
+
+        WeightSpliterator(int start, int end) {
+            super(start, end);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (!advance()) {
+                return false;
+            }
+            action.accept(intWeightAt(row, column));
+            return true;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int middle = splitRow();
+            if (middle == -1) {
+                return null;
+            }
+            Spliterator.OfInt upper = new WeightSpliterator(middle, end);
+            end = middle;
+            return upper;
+        }
+
+        @Override
+        public int characteristics() {
+            return NONNULL;
+        }
+    }
+
+    /**
+     * Exports every edge into primitive columns. Unlike edges(), this creates no
+     * object per edge and no hash table: the batch holds three int arrays of
+     * edgeSize() entries and one array of vertices. Edges are listed row by row in
+     * index order.
+     *
+     * @return a columnar snapshot of the edges; throws an ArithmeticException if a
+     *         weight does not fit in an int
+     */
+    public EdgeBatch<V> exportEdges() {
+        Object[] vertices = new Object[nextIndex];
+        for (int i = 0; i < nextIndex; i++) {
+            vertices[i] = map.vertexAt(i);
+        }
+        int[] sources = new int[edgeSize];
+        int[] destinations = new int[edgeSize];
+        int[] weights = new int[edgeSize];
+        int edgeCount = 0;
+        for (int i = 0; i < nextIndex; i++) {
+            for (int j = present.nextSetBit(i, 0); j != -1; j = present.nextSetBit(i, j + 1)) {
+                sources[edgeCount] = i;
+                destinations[edgeCount] = j;
+                weights[edgeCount] = intWeightAt(i, j);
+                edgeCount++;
+            }
+        }
+        return new EdgeBatch<>(vertices, sources, destinations, weights);
+    }
+
+    /**
+     * Returns the edges leaving a vertex.
+     *
+     * @param source the source vertex
+     * @return the out-edges of the vertex, empty if the vertex is not in the graph
+     */
+    @Override
+    public List<Edge<V>> outEdges(V source) {
+        List<Edge<V>> list = new ArrayList<>();
+        int row = map.indexOf(source);
+        if (row == -1) {
+            return list;
+        }
+        for (int j = present.nextSetBit(row, 0); j != -1; j = present.nextSetBit(row, j + 1)) {
+            list.add(new Edge<>(source, map.vertexAt(j), intWeightAt(row, j)));
+        }
+        return list;
+    }
+
+    /**
+     * Returns the vertex at a matrix index, as reported by vertexId(), outNeighbors()
+     * and forEachOutEdge().
+     *
+     * @param index a vertex index
+     * @return the vertex, or null if no vertex has the index
+     */
+    public V vertexAt(int index) {
+        return map.vertexAt(index);
+    }
+
+    /**
+     * Returns the id of a vertex: its row and column in the adjacency matrix. The id
+     * can be passed to the *ById methods to skip the hash lookup on every call.
+     *
+     * An id stays valid for as long as its vertex is in the graph, across any number
+     * of other vertex and edge changes, with one exception: compact() renumbers every
+     * vertex. Once a vertex is removed its id is handed to the next vertex added, so
+     * an id held past the removal of its vertex may name a different vertex; check it
+     * with vertexAt() if that can happen. clear() invalidates every id.
+     *
+     * @param vertex a vertex to search for
+     * @return the vertex's id, or -1 if the vertex is not in the graph
+     */
+    public int vertexId(V vertex) {
+        return map.indexOf(vertex);
+    }
+
+    /**
+     * Adds a new edge between two vertex ids. If the edge already exists, then no change
+     * is made to the graph.
+     *
+     * @param source the source vertex id of the edge
+     * @param destination the destination vertex id of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     * @return true if the edge was added, otherwise false, including when either id has no vertex
+     */
+    public boolean addEdgeById(int source, int destination, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        return putCell(source, destination, toStoredWeight(weight));
+    }
+
+    /**
+     * Reports whether an edge between two vertex ids is in the graph or not.
+     *
+     * @param source the source vertex id of the edge
+     * @param destination the destination vertex id of the edge
+     * @return true if edge is in the graph, or false otherwise
+     */
+    public boolean containsEdgeById(int source, int destination) {
+        return map.containsIndex(source) && map.containsIndex(destination) && present.get(source, destination);
+    }
+
+    /**
+     * Returns the edge weight of an edge between two vertex ids.
+     *
+     * @param source the source vertex id of the edge
+     * @param destination the destination vertex id of the edge
+     * @return the edge weight, or -1 if the edge weight is not found; throws an
+     *         ArithmeticException if the weight does not fit in an int
+     */
+    public int edgeWeightById(int source, int destination) {
+        return containsEdgeById(source, destination) ? intWeightAt(source, destination) : -1;
+    }
+
+    /**
+     * Removes an edge between two vertex ids from the graph.
+     *
+     * @param source the source vertex id of the edge to search for and remove
+     * @param destination the destination vertex id of the edge to search for and remove
+     * @return true if the edge was found and removed, otherwise false
+     */
+    public boolean removeEdgeById(int source, int destination) {
+        if (!containsEdgeById(source, destination)) {
+            return false;
+        }
+        clearCell(source, destination);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Iterates over the indices of a vertex's successors, in ascending order, by
+     * scanning only the vertex's row of the bit matrix. The indices are turned back
+     * into vertices with {@link #vertexAt(int)}.
+     *
+     * @param source the source vertex
+     * @return an iterator over successor indices, empty if the vertex is not in the graph
+     */
+    public PrimitiveIterator.OfInt outNeighbors(V source) {
+        int row = map.indexOf(source);
+        return new PrimitiveIterator.OfInt() {
+            private int next = row == -1 ? -1 : present.nextSetBit(row, 0);
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next == -1) {
+                    throw new NoSuchElementException();
+                }
+                int current = next;
+                next = present.nextSetBit(row, current + 1);
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Passes each out-edge of a vertex to a consumer as its destination index and
+     * weight. Only the vertex's row is scanned and no Edge objects are created.
+     *
+     * @param source the source vertex
+     * @param action receives the destination index and weight of each edge; throws an
+     *               ArithmeticException if a weight does not fit in an int
+     * @return true if the vertex is in the graph, otherwise false
+     */
+    public boolean forEachOutEdge(V source, IntIntConsumer action) {
+        int row = map.indexOf(source);
+        if (row == -1) {
+            return false;
+        }
+        for (int j = present.nextSetBit(row, 0); j != -1; j = present.nextSetBit(row, j + 1)) {
+            action.accept(j, intWeightAt(row, j));
+        }
+        return true;
+    }
+
+    /**
+     * Passes each out-edge of a vertex to a consumer as its destination index and its
+     * weight as a double, reading fractional weights exactly. Only the vertex's row is
+     * scanned and no Edge objects are created.
+     *
+     * @param source the source vertex
+     * @param action receives the destination index and weight of each edge
+     * @return true if the vertex is in the graph, otherwise false
+     */
+    public boolean forEachOutEdgeAsDouble(V source, IntDoubleConsumer action) {
+        int row = map.indexOf(source);
+        if (row == -1) {
+            return false;
+        }
+        for (int j = present.nextSetBit(row, 0); j != -1; j = present.nextSetBit(row, j + 1)) {
+            action.accept(j, toDoubleWeight(weightAt(row, j)));
+        }
+        return true;
+    }
+
+    /**
+     * Returns the vertices with an edge into a vertex. Reads one row of the reverse
+     * index if it is on, otherwise walks the vertex's column.
+     *
+     * @param destination the destination vertex
+     * @return the predecessors of the vertex, empty if the vertex is not in the graph
+     */
+    public Set<V> inNeighbors(V destination) {
+        Set<V> set = new HashSet<>();
+        int column = map.indexOf(destination);
+        if (column == -1) {
+            return set;
+        }
+        if (incoming != null) {
+            for (int i = incoming.nextSetBit(column, 0); i != -1; i = incoming.nextSetBit(column, i + 1)) {
+                set.add(map.vertexAt(i));
+            }
+        } else {
+            for (int i = 0; i < nextIndex; i++) {
+                if (present.get(i, column)) {
+                    set.add(map.vertexAt(i));
+                }
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Returns the number of edges leaving a vertex, from a counter kept as edges
+     * change.
+     *
+     * @param source the source vertex
+     * @return the out-degree, or -1 if the vertex is not in the graph
+     */
+    public int outDegree(V source) {
+        int row = map.indexOf(source);
+        return row == -1 ? -1 : outDegrees[row];
+    }
+
+    /**
+     * Returns the number of edges into a vertex, from a counter kept as edges
+     * change.
+     *
+     * @param destination the destination vertex
+     * @return the in-degree, or -1 if the vertex is not in the graph
+     */
+    public int inDegree(V destination) {
+        int column = map.indexOf(destination);
+        return column == -1 ? -1 : inDegrees[column];
+    }
+
+    /**
+     * Counts the vertices by out-degree. Entry d of the result is the number of
+     * vertices with exactly d out-edges, and the last entry is for the largest
+     * out-degree in the graph. Only the degree counters are read, not the matrix.
+     *
+     * @return the out-degree histogram, with one entry (for degree 0) in an empty graph
+     */
+    public int[] degreeHistogram() {
+        return histogram(outDegrees);
+    }
+
+    /**
+     * Counts the vertices by in-degree, in the same form as {@link #degreeHistogram()}.
+     *
+     * @return the in-degree histogram, with one entry (for degree 0) in an empty graph
+     */
+    public int[] inDegreeHistogram() {
+        return histogram(inDegrees);
+    }
+
+    private int[] histogram(int[] degrees) {
+        int maxDegree = 0;
+        for (int i = 0; i < nextIndex; i++) {
+            maxDegree = Math.max(maxDegree, degrees[i]);
+        }
+        int[] counts = new int[maxDegree + 1];
+        for (int i = 0; i < nextIndex; i++) {
+            if (map.containsIndex(i)) {
+                counts[degrees[i]]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Removes a vertex from the graph, along with every edge into or out of it. The
+     * vertex's row and column are cleared and its index is reused by the next vertex
+     * added.
+     *
+     * @param vertex the vertex to search for and remove
+     * @return true if the vertex was found and removed, otherwise false
+     */
+    @Override
+    public boolean removeVertex(V vertex) {
+        int index = map.remove(vertex);
+        if (index == -1) {
+            return false;
+        }
+        for (int j = present.nextSetBit(index, 0); j != -1; j = present.nextSetBit(index, j + 1)) {
+            clearCell(index, j);
+        }
+        if (incoming != null) {
+            for (int i = incoming.nextSetBit(index, 0); i != -1; i = incoming.nextSetBit(index, i + 1)) {
+                clearCell(i, index);
+            }
+        } else {
+            for (int i = 0; i < nextIndex; i++) {
+                if (present.get(i, index)) {
+                    clearCell(i, index);
+                }
+            }
+        }
+        stack.push(index);
+        vertexSize--;
+        modCount++;
+        return true;
+    }
+
+    // records a new edge in the bit matrices and counters, the weight is stored by the caller
+    private boolean markCell(int row, int column) {
+        if (!present.set(row, column)) {
+            return false;
+        }
+        if (incoming != null) {
+            incoming.set(column, row);
+        }
+        outDegrees[row]++;
+        inDegrees[column]++;
+        edgeSize++;
+        return true;
+    }
+
+    private void clearCell(int row, int column) {
+        present.clear(row, column);
+        if (incoming != null) {
+            incoming.clear(column, row);
+        }
+        if (matrix != null) {
+            matrix.remove(row, column);
+        }
+        outDegrees[row]--;
+        inDegrees[column]--;
+        edgeSize--;
+    }
+
+    /**
+     * Renumbers the vertices so they occupy the lowest indices, keeping their
+     * relative order, and shrinks the adjacency matrix to fit them. Long-running
+     * graphs that add and remove many vertices can call this to give back the space
+     * of removed vertices.
+     */
+    public void compact() {
+        int[] renumber = new int[nextIndex];
+        int vertexCount = 0;
+        for (int i = 0; i < nextIndex; i++) {
+            renumber[i] = map.containsIndex(i) ? vertexCount++ : -1;
+        }
+
+        // cells only ever move up and left, so walking rows and columns in
+        // ascending order never overwrites a cell before it has been moved
+        for (int i = 0; i < nextIndex; i++) {
+            if (renumber[i] == -1) {
+                continue;
+            }
+            for (int j = present.nextSetBit(i, 0); j != -1; j = present.nextSetBit(i, j + 1)) {
+                if (renumber[i] != i || renumber[j] != j) {
+                    present.clear(i, j);
+                    present.set(renumber[i], renumber[j]);
+                    if (matrix != null) {
+                        long weight = matrix.get(i, j);
+                        matrix.remove(i, j);
+                        matrix.set(renumber[i], renumber[j], weight);
+                    }
+                }
+            }
+        }
+
+        VertexIndex<V> compacted = new VertexIndex<>(vertexCount);
+        for (int i = 0; i < nextIndex; i++) {
+            if (renumber[i] != -1) {
+                compacted.add(map.vertexAt(i), renumber[i]);
+                outDegrees[renumber[i]] = outDegrees[i];
+                inDegrees[renumber[i]] = inDegrees[i];
+            }
+        }
+        map = compacted;
+        stack.clear();
+        nextIndex = vertexCount;
+        modCount++;
+
+        resize(Math.max(vertexCount, 1));
+        if (incoming != null) {
+            rebuildReverseIndex();
+        }
+    }
+
+    /**
      * Removes a vertex from the graph.
      *
      * @param source the source vertex of the edge to search for and remove
@@ -223,12 +1634,7 @@ public class DirectedGraph<V> implements IGraph<V> {
      */
     @Override
     public boolean removeEdge(V source, V destination) {
-        if (containsEdge(source, destination)) {
-            matrix[map.getValue(source)][map.getValue(destination)] = -1;
-            edgeSize--;
-            return true;
-        }
-        return false;
+        return removeEdgeById(map.indexOf(source), map.indexOf(destination));
     }
 
     /**
@@ -236,11 +1642,62 @@ public class DirectedGraph<V> implements IGraph<V> {
      */
     @Override
     public void clear() {
-        map = new Bijection<>();
+        map.clear();
         stack.clear();
-        emptyWeights();
+        nextIndex = 0;
+        present.clear();
+        if (incoming != null) {
+            incoming.clear();
+        }
+        if (matrix != null) {
+            matrix.clear();
+        }
+        Arrays.fill(outDegrees, 0);
+        Arrays.fill(inDegrees, 0);
         vertexSize = 0;
         edgeSize = 0;
+        modCount++;
+    }
+
+    /**
+     * Compacts the graph into an immutable compressed sparse row snapshot. The
+     * snapshot holds O(V + E) cells instead of the O(V^2) matrix and lists each
+     * vertex's out-edges contiguously. Later changes to this graph are not
+     * reflected in the snapshot.
+     *
+     * @return a read-only copy of this graph
+     */
+    public CsrGraph<V> toCsr() {
+        int[] renumber = new int[nextIndex];
+        VertexIndex<V> vertices = new VertexIndex<>(vertexSize);
+        int vertexCount = 0;
+        for (int i = 0; i < nextIndex; i++) {
+            V vertex = map.vertexAt(i);
+            if (vertex == null) {
+                renumber[i] = -1;
+            } else {
+                renumber[i] = vertexCount;
+                vertices.add(vertex, vertexCount++);
+            }
+        }
+
+        int[] offsets = new int[vertexCount + 1];
+        int[] targets = new int[edgeSize];
+        int[] weights = new int[edgeSize];
+        int edgeCount = 0;
+        for (int i = 0; i < nextIndex; i++) {
+            if (renumber[i] == -1) {
+                continue;
+            }
+            for (int j = present.nextSetBit(i, 0); j != -1; j = present.nextSetBit(i, j + 1)) {
+                // renumbering keeps index order, so each row's targets stay sorted
+                targets[edgeCount] = renumber[j];
+                weights[edgeCount] = intWeightAt(i, j);
+                edgeCount++;
+            }
+            offsets[renumber[i] + 1] = edgeCount;
+        }
+        return new CsrGraph<>(vertices, offsets, targets, weights);
     }
 
     /**
@@ -254,7 +1711,9 @@ public class DirectedGraph<V> implements IGraph<V> {
         return "DirectedGraph{" +
             "stack=" + stack +
             ", map=" + map +
-            ", matrix=" + Arrays.toString(matrix) +
+            ", capacity=" + capacity +
+            ", present=" + present +
+            ", matrix=" + matrix +
             ", edgeSize=" + edgeSize +
             ", vertexSize=" + vertexSize +
             '}';
@@ -0,0 +1,406 @@
+package graphs;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import structures.BitMatrix;
+import structures.IntWeightMatrix;
+
+/**
+ * A directed, weighted graph whose vertices are non-negative int ids. Each id is
+ * used directly as the row and column of the adjacency matrix, so there is no
+ * vertex mapping to hash into and nothing is boxed. Callers with dense integer ids
+ * should prefer this class over {@code DirectedGraph<Integer>}.
+ *
+ * The matrix grows to fit the largest id added, so ids should be dense. Code
+ * written against IGraph can use the graph through {@link #asGraph()}.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class DirectedIntGraph {
+
+    private BitSet ids = new BitSet();
+    private BitMatrix present;
+    private IntWeightMatrix matrix;
+    private int capacity;
+    private int edgeSize;
+    private int vertexSize;
+
+    /**
+     * Creates a new graph with space initially for ids 0 to 9.
+     */
+    public DirectedIntGraph() {
+        this(DirectedGraph.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new graph with space for ids below the requested size.
+     *
+     * @param initialSize the initial number of rows/columns in the adjacency matrix, at least 1
+     */
+    public DirectedIntGraph(int initialSize) {
+        if (initialSize < 1) {
+            throw new IllegalArgumentException("Graph must have space for at least one vertex");
+        }
+        capacity = initialSize;
+        present = new BitMatrix(initialSize);
+        matrix = new IntWeightMatrix(initialSize);
+    }
+
+    private int maxCapacity() {
+        return Math.min(BitMatrix.MAX_CAPACITY, matrix.maxCapacity());
+    }
+
+    private void resize(int newCapacity) {
+        capacity = newCapacity;
+        present.resize(newCapacity);
+        matrix.resize(newCapacity);
+    }
+
+    /**
+     * Returns the number of ids the graph can hold before its adjacency matrix has to
+     * grow.
+     *
+     * @return the number of rows/columns in the adjacency matrix
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Grows the adjacency matrix, if needed, so that it holds every id below the given
+     * bound. Growing once up front replaces the repeated resizes of a bulk load.
+     *
+     * @param minCapacity one more than the largest id the graph must hold, throws an
+     *                    IllegalArgumentException if it exceeds the matrix's maximum
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > maxCapacity()) {
+            throw new IllegalArgumentException("Graph cannot hold more than " + maxCapacity() + " vertices");
+        }
+        if (minCapacity > capacity) {
+            resize(minCapacity);
+        }
+    }
+
+    /**
+     * Adds a new vertex to the graph. If the vertex already exists, then no change is made to the
+     * graph.
+     *
+     * @param vertex the new vertex id, throws an IllegalArgumentException if negative or beyond
+     *               the matrix's maximum
+     * @return true if the vertex was added, otherwise false
+     */
+    public boolean addVertex(int vertex) {
+        if (vertex < 0) {
+            throw new IllegalArgumentException("Vertex id cannot be negative");
+        }
+        if (ids.get(vertex)) {
+            return false;
+        }
+        if (vertex >= capacity) {
+            if (vertex >= maxCapacity()) {
+                throw new IllegalArgumentException("Graph cannot hold more than " + maxCapacity() + " vertices");
+            }
+            resize((int) Math.min(Math.max(vertex + 1L, capacity * 2L), maxCapacity()));
+        }
+        ids.set(vertex);
+        vertexSize++;
+        return true;
+    }
+
+    /**
+     * Adds a new edge to the graph. If the edge already exists, then no change is made to the
+     * graph.
+     *
+     * Edges are considered to be directed.
+     *
+     * @param source the source vertex id of the edge
+     * @param destination the destination vertex id of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     * @return true if the edge was added, otherwise false
+     */
+    public boolean addEdge(int source, int destination, int weight) throws IllegalArgumentException {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        if (!containsVertex(source) || !containsVertex(destination) || present.get(source, destination)) {
+            return false;
+        }
+        matrix.set(source, destination, weight);
+        present.set(source, destination);
+        edgeSize++;
+        return true;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the vertex count.
+     */
+    public int vertexSize() {
+        return vertexSize;
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the edge count
+     */
+    public int edgeSize() {
+        return edgeSize;
+    }
+
+    /**
+     * Reports whether a vertex is in the graph or not.
+     *
+     * @param vertex a vertex id to search for
+     * @return true if the vertex is in the graph, or false otherwise
+     */
+    public boolean containsVertex(int vertex) {
+        return vertex >= 0 && ids.get(vertex);
+    }
+
+    /**
+     * Reports whether an edge is in the graph or not.
+     *
+     * @param source the source vertex id of the edge
+     * @param destination the destination vertex id of the edge
+     * @return true if edge is in the graph, or false otherwise
+     */
+    public boolean containsEdge(int source, int destination) {
+        return containsVertex(source) && containsVertex(destination) && present.get(source, destination);
+    }
+
+    /**
+     * Returns the edge weight of an edge in the graph.
+     *
+     * @param source the source vertex id of the edge
+     * @param destination the destination vertex id of the edge
+     * @return the edge weight, or -1 if the edge weight is not found
+     */
+    public int edgeWeight(int source, int destination) {
+        return containsEdge(source, destination) ? (int) matrix.get(source, destination) : -1;
+    }
+
+    /**
+     * Returns the ids of all vertices in the graph.
+     *
+     * @return the vertex ids in ascending order
+     */
+    public int[] vertices() {
+        return ids.stream().toArray();
+    }
+
+    /**
+     * Iterates over the ids of a vertex's successors, in ascending order, by scanning
+     * only the vertex's row of the bit matrix.
+     *
+     * @param source the source vertex id
+     * @return an iterator over successor ids, empty if the vertex is not in the graph
+     */
+    public PrimitiveIterator.OfInt outNeighbors(int source) {
+        boolean found = containsVertex(source);
+        return new PrimitiveIterator.OfInt() {
+            private int next = found ? present.nextSetBit(source, 0) : -1;
+
+            @Override
+            public boolean hasNext() {
+                return next != -1;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next == -1) {
+                    throw new NoSuchElementException();
+                }
+                int current = next;
+                next = present.nextSetBit(source, current + 1);
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Passes each out-edge of a vertex to a consumer as its destination id and weight.
+     * Only the vertex's row is scanned and no Edge objects are created.
+     *
+     * @param source the source vertex id
+     * @param action receives the destination id and weight of each edge
+     * @return true if the vertex is in the graph, otherwise false
+     */
+    public boolean forEachOutEdge(int source, IntIntConsumer action) {
+        if (!containsVertex(source)) {
+            return false;
+        }
+        for (int j = present.nextSetBit(source, 0); j != -1; j = present.nextSetBit(source, j + 1)) {
+            action.accept(j, (int) matrix.get(source, j));
+        }
+        return true;
+    }
+
+    /**
+     * Removes a vertex from the graph, along with every edge into or out of it.
+     *
+     * @param vertex the vertex id to search for and remove
+     * @return true if the vertex was found and removed, otherwise false
+     */
+    public boolean removeVertex(int vertex) {
+        if (!containsVertex(vertex)) {
+            return false;
+        }
+        for (int j = present.nextSetBit(vertex, 0); j != -1; j = present.nextSetBit(vertex, j + 1)) {
+            present.clear(vertex, j);
+            edgeSize--;
+        }
+        for (int i = ids.nextSetBit(0); i != -1; i = ids.nextSetBit(i + 1)) {
+            if (present.clear(i, vertex)) {
+                edgeSize--;
+            }
+        }
+        ids.clear(vertex);
+        vertexSize--;
+        return true;
+    }
+
+    /**
+     * Removes an edge from the graph.
+     *
+     * @param source the source vertex id of the edge to search for and remove
+     * @param destination the destination vertex id of the edge to search for and remove
+     * @return true if the edge was found and removed, otherwise false
+     */
+    public boolean removeEdge(int source, int destination) {
+        if (!containsEdge(source, destination)) {
+            return false;
+        }
+        present.clear(source, destination);
+        edgeSize--;
+        return true;
+    }
+
+    /**
+     * Removes all vertices and edges from the graph.
+     */
+    public void clear() {
+        ids.clear();
+        present.clear();
+        matrix.clear();
+        vertexSize = 0;
+        edgeSize = 0;
+    }
+
+    /**
+     * Returns a view of this graph as an {@code IGraph<Integer>}, for code written
+     * against the object interface. The view boxes ids on the way in and out; changes
+     * through either side are visible in both.
+     *
+     * @return an IGraph view of this graph
+     */
+    public IGraph<Integer> asGraph() {
+        return new IntegerView();
+    }
+
+    @Override
+    public String toString() {
+        return "DirectedIntGraph{" +
+            "ids=" + ids +
+            ", capacity=" + capacity +
+            ", present=" + present +
+            ", edgeSize=" + edgeSize +
+            ", vertexSize=" + vertexSize +
+            '}';
+    }
+
+    /**
+     * The IGraph view returned by {@link #asGraph()}. A null vertex is never in the
+     * graph: queries and removals report it as missing, and adding it throws the same
+     * NullPointerException as {@link DirectedGraph#addVertex(Object)}.
+     */
+    private class IntegerView implements IGraph<Integer> {
+
+        @Override
+        public boolean addVertex(Integer vertex) {
+            if (vertex == null) {
+                throw new NullPointerException("Vertex cannot be null");
+            }
+            return DirectedIntGraph.this.addVertex(vertex);
+        }
+
+        @Override
+        public boolean addEdge(Integer source, Integer destination, int weight) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight cannot be negative");
+            }
+            return source != null && destination != null && DirectedIntGraph.this.addEdge(source, destination, weight);
+        }
+
+        @Override
+        public int vertexSize() {
+            return vertexSize;
+        }
+
+        @Override
+        public int edgeSize() {
+            return edgeSize;
+        }
+
+        @Override
+        public boolean containsVertex(Integer vertex) {
+            return vertex != null && DirectedIntGraph.this.containsVertex(vertex);
+        }
+
+        @Override
+        public boolean containsEdge(Integer source, Integer destination) {
+            return source != null && destination != null && DirectedIntGraph.this.containsEdge(source, destination);
+        }
+
+        @Override
+        public int edgeWeight(Integer source, Integer destination) {
+            return source == null || destination == null ? -1 : DirectedIntGraph.this.edgeWeight(source, destination);
+        }
+
+        @Override
+        public Set<Integer> vertices() {
+            Set<Integer> set = new HashSet<>();
+            for (int i = ids.nextSetBit(0); i != -1; i = ids.nextSetBit(i + 1)) {
+                set.add(i);
+            }
+            return set;
+        }
+
+        @Override
+        public Set<Edge<Integer>> edges() {
+            Set<Edge<Integer>> set = new HashSet<>();
+            for (int i = ids.nextSetBit(0); i != -1; i = ids.nextSetBit(i + 1)) {
+                for (int j = present.nextSetBit(i, 0); j != -1; j = present.nextSetBit(i, j + 1)) {
+                    set.add(new Edge<>(i, j, (int) matrix.get(i, j)));
+                }
+            }
+            return set;
+        }
+
+        @Override
+        public boolean removeVertex(Integer vertex) {
+            return vertex != null && DirectedIntGraph.this.removeVertex(vertex);
+        }
+
+        @Override
+        public boolean removeEdge(Integer source, Integer destination) {
+            return source != null && destination != null && DirectedIntGraph.this.removeEdge(source, destination);
+        }
+
+        @Override
+        public void clear() {
+            DirectedIntGraph.this.clear();
+        }
+
+        @Override
+        public String toString() {
+            return DirectedIntGraph.this.toString();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package graphs;
+
+/**
+ * Receives the edges of a graph one at a time from forEachEdgeAsDouble(), as the
+ * two vertices and the weight as a double. A double holds the weights of every kind
+ * of graph, including float and double weights that are not whole numbers.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+@FunctionalInterface
+public interface DoubleEdgeVisitor<V> {
+
+    /**
+     * Receives one edge.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight
+     */
+    void visit(V source, V destination, double weight);
+}
@@ -0,0 +1,108 @@
+package graphs;
+
+/**
+ * A snapshot of a graph's edges in columnar form: edge {@code i} runs from vertex
+ * id {@code sources()[i]} to vertex id {@code destinations()[i]} with weight
+ * {@code weights()[i]}. The columns are plain int arrays, so a batch of any size is
+ * a handful of objects that can be handed to code that works on primitive arrays.
+ *
+ * Vertex ids are the graph's matrix indices at the time of the export and are
+ * turned back into vertices with {@link #vertex(int)}. Batches are created with
+ * {@link DirectedGraph#exportEdges()}; later changes to the graph are not
+ * reflected in the batch.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class EdgeBatch<V> {
+
+    private final Object[] vertices;
+    private final int[] sources;
+    private final int[] destinations;
+    private final int[] weights;
+
+    EdgeBatch(Object[] vertices, int[] sources, int[] destinations, int[] weights) {
+        this.vertices = vertices;
+        this.sources = sources;
+        this.destinations = destinations;
+        this.weights = weights;
+    }
+
+    /**
+     * Returns the number of edges in the batch.
+     *
+     * @return the edge count
+     */
+    public int size() {
+        return sources.length;
+    }
+
+    /**
+     * Returns the source vertex id of every edge. The array belongs to the batch
+     * and is not copied.
+     *
+     * @return the source column
+     */
+    public int[] sources() {
+        return sources;
+    }
+
+    /**
+     * Returns the destination vertex id of every edge. The array belongs to the
+     * batch and is not copied.
+     *
+     * @return the destination column
+     */
+    public int[] destinations() {
+        return destinations;
+    }
+
+    /**
+     * Returns the weight of every edge. The array belongs to the batch and is not
+     * copied.
+     *
+     * @return the weight column
+     */
+    public int[] weights() {
+        return weights;
+    }
+
+    /**
+     * Returns one more than the largest vertex id in the batch.
+     *
+     * @return the vertex id bound
+     */
+    public int vertexIdBound() {
+        return vertices.length;
+    }
+
+    /**
+     * Returns the vertex with an id.
+     *
+     * @param id a vertex id from one of the columns
+     * @return the vertex, or null if no vertex had the id
+     */
+    @SuppressWarnings("unchecked")
+    public V vertex(int id) {
+        return id < 0 || id >= vertices.length ? null : (V) vertices[id];
+    }
+
+    /**
+     * Builds an Edge object for one edge of the batch.
+     *
+     * @param index the position of the edge in the columns
+     * @return the edge
+     */
+    public Edge<V> edge(int index) {
+        return new Edge<>(vertex(sources[index]), vertex(destinations[index]), weights[index]);
+    }
+
+    @Override
+    public String toString() {
+        return "EdgeBatch{" +
+            "size=" + size() +
+            ", vertexIdBound=" + vertexIdBound() +
+            '}';
+    }
+}
@@ -0,0 +1,22 @@
+package graphs;
+
+/**
+ * Receives the edges of a graph one at a time from forEachEdge(), as the two
+ * vertices and a primitive weight, so that walking the edges allocates nothing.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+@FunctionalInterface
+public interface EdgeVisitor<V> {
+
+    /**
+     * Receives one edge.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight
+     */
+    void visit(V source, V destination, int weight);
+}
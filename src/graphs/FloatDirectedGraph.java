@@ -0,0 +1,161 @@
+package graphs;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import structures.IntWeightMatrix;
+
+/**
+ * A directed graph with float edge weights. Each weight is stored as its IEEE 754
+ * bits in an {@link IntWeightMatrix}, half the size of a {@link DoubleDirectedGraph},
+ * and whether an edge exists is still tracked by the graph's bit matrix.
+ *
+ * Weights are read exactly with edgeWeightAsDouble(), forEachEdgeAsDouble() and
+ * forEachOutEdgeAsDouble(), since a double holds every float. The int and long
+ * based methods, including every IGraph method, see each weight rounded to the
+ * nearest whole number, the same as in a {@link DoubleDirectedGraph}.
+ *
+ * As there, the int-based upsertEdge(), computeWeight() and mergeWeight() throw an
+ * ArithmeticException for an edge whose weight is not a whole number rather than
+ * write back a rounded weight; upsertEdge(Object, Object, float),
+ * computeWeightAsDouble() and mergeWeightAsDouble() update any weight, rounding the
+ * result to the nearest float.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class FloatDirectedGraph<V> extends DirectedGraph<V> {
+
+    /**
+     * Creates a new graph with space initially for 10 vertices.
+     */
+    public FloatDirectedGraph() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new graph with enough space for the requested number of vertices.
+     *
+     * @param initialSize the initial number of rows/columns in adjacency matrix, at least 1
+     */
+    public FloatDirectedGraph(int initialSize) {
+        super(new IntWeightMatrix(initialSize), initialSize);
+    }
+
+    /**
+     * Adds a new edge with a whole-number weight, rounded to the nearest float. If the
+     * edge already exists, then no change is made to the graph.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     * @return true if the edge was added, otherwise false
+     */
+    @Override
+    public boolean addEdge(V source, V destination, long weight) throws IllegalArgumentException {
+        return addEdge(source, destination, (float) weight);
+    }
+
+    /**
+     * Adds a new edge. If the edge already exists, then no change is made to the graph.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     *               or NaN
+     * @return true if the edge was added, otherwise false
+     */
+    public boolean addEdge(V source, V destination, float weight) throws IllegalArgumentException {
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("Weight cannot be negative or NaN");
+        }
+        // adding 0.0f turns -0.0f into 0.0f, so every stored weight has its sign bit clear
+        return putEdge(source, destination, Float.floatToIntBits(weight + 0.0f));
+    }
+
+    /**
+     * Adds an edge, or replaces the weight of the edge if it already exists.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     *               or NaN
+     * @return the previous weight, or {@link #NO_EDGE} if the edge is new; throws an
+     *         IllegalArgumentException if either vertex is not in the graph
+     */
+    public double upsertEdge(V source, V destination, float weight) throws IllegalArgumentException {
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("Weight cannot be negative or NaN");
+        }
+        return upsertDoubleEdge(source, destination, weight);
+    }
+
+    /**
+     * Replaces the weight of an edge with a value computed from its current weight,
+     * like computeWeight() but without rounding the weight to an int. The function
+     * receives {@link #NO_EDGE} if the edge does not exist yet; returning NO_EDGE
+     * removes the edge, and any other negative or NaN result is rejected with the
+     * graph left unchanged.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param remapping computes the new weight from the current one
+     * @return the new weight as stored, rounded to the nearest float, or NO_EDGE if the
+     *         edge is now absent; throws an IllegalArgumentException if either vertex is
+     *         not in the graph or the result is rejected
+     */
+    public double computeWeightAsDouble(V source, V destination, DoubleUnaryOperator remapping) {
+        return computeDoubleWeight(source, destination, remapping);
+    }
+
+    /**
+     * Combines a value into the weight of an edge, like mergeWeight() but without
+     * rounding the weight to an int. If the edge does not exist, it is added with the
+     * value as its weight; otherwise its weight becomes
+     * {@code merger.applyAsDouble(weight, value)}. A result of {@link #NO_EDGE} removes
+     * the edge, and any other negative or NaN result is rejected with the graph left
+     * unchanged.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param value the weight of a new edge, and the second argument to the merger;
+     *              throws an IllegalArgumentException if negative or NaN
+     * @param merger combines the current weight with the value
+     * @return the new weight as stored, rounded to the nearest float, or NO_EDGE if the
+     *         edge is now absent; throws an IllegalArgumentException if either vertex is
+     *         not in the graph or the result is rejected
+     */
+    public double mergeWeightAsDouble(V source, V destination, double value, DoubleBinaryOperator merger) {
+        if (!(value >= 0)) {
+            throw new IllegalArgumentException("Weight cannot be negative or NaN");
+        }
+        return computeDoubleWeight(source, destination,
+                weight -> weight == NO_EDGE ? value : merger.applyAsDouble(weight, value));
+    }
+
+    @Override
+    long toStoredWeight(long weight) {
+        return Float.floatToIntBits((float) weight);
+    }
+
+    @Override
+    long toLongWeight(long stored) {
+        return DoubleDirectedGraph.roundedWeight(toDoubleWeight(stored));
+    }
+
+    @Override
+    long toExactLongWeight(long stored) {
+        return DoubleDirectedGraph.wholeNumber(toDoubleWeight(stored));
+    }
+
+    @Override
+    long toStoredDoubleWeight(double weight) {
+        // adding zero turns a negative zero into a positive one, as in addEdge()
+        return Float.floatToIntBits((float) weight + 0.0f);
+    }
+
+    @Override
+    double toDoubleWeight(long stored) {
+        return Float.intBitsToFloat((int) stored);
+    }
+}
@@ -0,0 +1,20 @@
+package graphs;
+
+/**
+ * Receives an edge as a destination index and a double weight, without boxing or
+ * an Edge object. Used by forEachOutEdgeAsDouble().
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+@FunctionalInterface
+public interface IntDoubleConsumer {
+
+    /**
+     * Receives one edge.
+     *
+     * @param destination the index of the destination vertex
+     * @param weight the edge weight
+     */
+    void accept(int destination, double weight);
+}
@@ -0,0 +1,21 @@
+package graphs;
+
+/**
+ * Receives an edge as two ints, without boxing or an Edge object. Used by the
+ * forEachOutEdge() methods, which pass the destination vertex index and the edge
+ * weight.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+
+    /**
+     * Receives one edge.
+     *
+     * @param destination the index of the destination vertex
+     * @param weight the edge weight
+     */
+    void accept(int destination, int weight);
+}
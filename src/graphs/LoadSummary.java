@@ -0,0 +1,74 @@
+package graphs;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of a bulk load with {@link DirectedGraph#addAll}: how many vertices
+ * and edges were added, and the positions in the edge arrays of every edge that was
+ * skipped, either because the graph already had it or because it was invalid.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class LoadSummary {
+
+    private final int verticesAdded;
+    private final int edgesAdded;
+    private final int[] duplicateEdges;
+    private final int[] invalidEdges;
+
+    LoadSummary(int verticesAdded, int edgesAdded, int[] duplicateEdges, int[] invalidEdges) {
+        this.verticesAdded = verticesAdded;
+        this.edgesAdded = edgesAdded;
+        this.duplicateEdges = duplicateEdges;
+        this.invalidEdges = invalidEdges;
+    }
+
+    /**
+     * Returns the number of vertices that were not already in the graph.
+     *
+     * @return the count of added vertices
+     */
+    public int verticesAdded() {
+        return verticesAdded;
+    }
+
+    /**
+     * Returns the number of edges that were added.
+     *
+     * @return the count of added edges
+     */
+    public int edgesAdded() {
+        return edgesAdded;
+    }
+
+    /**
+     * Returns the positions of edges that were skipped because the graph already had
+     * an edge between the same vertices, including repeats within the load.
+     *
+     * @return the positions in the edge arrays, in ascending order
+     */
+    public int[] duplicateEdges() {
+        return duplicateEdges.clone();
+    }
+
+    /**
+     * Returns the positions of edges that were skipped because they named a vertex
+     * position outside the vertex list or had a negative weight.
+     *
+     * @return the positions in the edge arrays, in ascending order
+     */
+    public int[] invalidEdges() {
+        return invalidEdges.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "LoadSummary{" +
+            "verticesAdded=" + verticesAdded +
+            ", edgesAdded=" + edgesAdded +
+            ", duplicateEdges=" + Arrays.toString(duplicateEdges) +
+            ", invalidEdges=" + Arrays.toString(invalidEdges) +
+            '}';
+    }
+}
@@ -0,0 +1,232 @@
+package graphs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A directed, weighted graph backed by hash adjacency lists. Each vertex maps its
+ * destinations to edge weights, and a reverse index of sources lets removeVertex()
+ * drop incoming edges without scanning every vertex. Memory grows with O(V + E)
+ * rather than the O(V^2) of a matrix.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class SparseDirectedGraph<V> implements AdjacencyGraph<V> {
+
+    private Map<V, Map<V, Integer>> out = new HashMap<>();
+    private Map<V, Set<V>> in = new HashMap<>();
+    private int edgeSize;
+
+    /**
+     * Adds a new vertex to the graph. If the vertex already exists, then no change is made to the
+     * graph.
+     *
+     * @param vertex the new vertex
+     * @return true if the vertex was added, otherwise false
+     */
+    @Override
+    public boolean addVertex(V vertex) {
+        if (containsVertex(vertex)) {
+            return false;
+        }
+        out.put(vertex, new HashMap<>());
+        in.put(vertex, new HashSet<>());
+        return true;
+    }
+
+    /**
+     * Adds a new edge to the graph. If the edge already exists, then no change is made to the
+     * graph.
+     *
+     * Edges are considered to be directed.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @param weight the edge weight, throws an IllegalArgumentException if the weight is negative
+     * @return true if the edge was added, otherwise false
+     */
+    @Override
+    public boolean addEdge(V source, V destination, int weight) throws IllegalArgumentException {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative");
+        }
+        Map<V, Integer> row = out.get(source);
+        if (row == null || !containsVertex(destination) || row.containsKey(destination)) {
+            return false;
+        }
+        row.put(destination, weight);
+        in.get(destination).add(source);
+        edgeSize++;
+        return true;
+    }
+
+    /**
+     * Returns the number of vertices in the graph.
+     *
+     * @return the vertex count.
+     */
+    @Override
+    public int vertexSize() {
+        return out.size();
+    }
+
+    /**
+     * Returns the number of edges in the graph.
+     *
+     * @return the edge count
+     */
+    @Override
+    public int edgeSize() {
+        return edgeSize;
+    }
+
+    /**
+     * Reports whether a vertex is in the graph or not.
+     *
+     * @param vertex a vertex to search for
+     * @return true if the vertex is in the graph, or false otherwise
+     */
+    @Override
+    public boolean containsVertex(V vertex) {
+        return out.containsKey(vertex);
+    }
+
+    /**
+     * Reports whether an edge is in the graph or not.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return true if edge is in the graph, or false otherwise
+     */
+    @Override
+    public boolean containsEdge(V source, V destination) {
+        Map<V, Integer> row = out.get(source);
+        return row != null && row.containsKey(destination);
+    }
+
+    /**
+     * Returns the edge weight of an edge in the graph.
+     *
+     * @param source the source vertex of the edge
+     * @param destination the destination vertex of the edge
+     * @return the edge weight, or -1 if the edge weight is not found
+     */
+    @Override
+    public int edgeWeight(V source, V destination) {
+        Map<V, Integer> row = out.get(source);
+        if (row == null) {
+            return -1;
+        }
+        Integer weight = row.get(destination);
+        return weight == null ? -1 : weight;
+    }
+
+    /**
+     * Returns a set with all vertices in the graph.
+     *
+     * @return a vertex set
+     */
+    @Override
+    public Set<V> vertices() {
+        return new HashSet<>(out.keySet());
+    }
+
+    /**
+     * Returns a set with all edges in the graph.
+     *
+     * @return an edge set
+     */
+    @Override
+    public Set<Edge<V>> edges() {
+        Set<Edge<V>> set = new HashSet<>();
+        for (V source : out.keySet()) {
+            set.addAll(outEdges(source));
+        }
+        return set;
+    }
+
+    /**
+     * Returns the edges leaving a vertex.
+     *
+     * @param source the source vertex
+     * @return the out-edges of the vertex, empty if the vertex is not in the graph
+     */
+    @Override
+    public List<Edge<V>> outEdges(V source) {
+        Map<V, Integer> row = out.get(source);
+        if (row == null) {
+            return new ArrayList<>();
+        }
+        List<Edge<V>> list = new ArrayList<>(row.size());
+        for (Map.Entry<V, Integer> entry : row.entrySet()) {
+            list.add(new Edge<>(source, entry.getKey(), entry.getValue()));
+        }
+        return list;
+    }
+
+    /**
+     * Removes a vertex from the graph, along with every edge into or out of it.
+     *
+     * @param vertex the vertex to search for and remove
+     * @return true if the vertex was found and removed, otherwise false
+     */
+    @Override
+    public boolean removeVertex(V vertex) {
+        Map<V, Integer> row = out.remove(vertex);
+        if (row == null) {
+            return false;
+        }
+        for (V destination : row.keySet()) {
+            in.get(destination).remove(vertex);
+        }
+        edgeSize -= row.size();
+        for (V source : in.remove(vertex)) {
+            if (out.get(source).remove(vertex) != null) {
+                edgeSize--;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes a vertex from the graph.
+     *
+     * @param source the source vertex of the edge to search for and remove
+     * @param destination the destination vertex of the edge to search for and remove
+     * @return true if the edge was found and removed, otherwise false
+     */
+    @Override
+    public boolean removeEdge(V source, V destination) {
+        Map<V, Integer> row = out.get(source);
+        if (row == null || row.remove(destination) == null) {
+            return false;
+        }
+        in.get(destination).remove(source);
+        edgeSize--;
+        return true;
+    }
+
+    /**
+     * Removes all vertices and edges from the graph.
+     */
+    @Override
+    public void clear() {
+        out = new HashMap<>();
+        in = new HashMap<>();
+        edgeSize = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SparseDirectedGraph{" +
+            "out=" + out +
+            ", edgeSize=" + edgeSize +
+            '}';
+    }
+}
@@ -0,0 +1,40 @@
+package graphs;
+
+/**
+ * A directed graph that records only whether each edge exists. Edges are kept in
+ * a bit matrix with one bit per (source, destination) pair, a 32x saving over the
+ * weighted matrix for existence-only workloads.
+ *
+ * Weights passed to addEdge() are validated but not stored, and edgeWeight()
+ * reports {@link #WEIGHT} for every edge in the graph. The same goes for
+ * upsertEdge(), computeWeight() and mergeWeight(): a non-negative result adds or
+ * keeps the edge and NO_EDGE removes it, but the weight returned and stored is
+ * always WEIGHT, so a merge function always sees WEIGHT as the current weight.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class UnweightedDirectedGraph<V> extends DirectedGraph<V> {
+
+    /**
+     * The weight reported for every edge in an unweighted graph.
+     */
+    public static final int WEIGHT = 1;
+
+    /**
+     * Creates a new graph with space initially for 10 vertices.
+     */
+    public UnweightedDirectedGraph() {
+        super(null, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new graph with enough space for the requested number of vertices.
+     *
+     * @param initialSize the initial number of rows/columns in the bit matrix, at least 1
+     */
+    public UnweightedDirectedGraph(int initialSize) {
+        super(null, initialSize);
+    }
+}
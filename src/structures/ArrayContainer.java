@@ -0,0 +1,140 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * A sparse container block stored as a sorted array of values.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+class ArrayContainer extends Container {
+
+    private char[] values;
+    private int size;
+
+    ArrayContainer() {
+        values = new char[4];
+    }
+
+    ArrayContainer(char[] values, int size) {
+        this.values = Arrays.copyOf(values, Math.max(size, 1));
+        this.size = size;
+    }
+
+    @Override
+    int cardinality() {
+        return size;
+    }
+
+    @Override
+    boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, (char) value) >= 0;
+    }
+
+    @Override
+    Container add(int value) {
+        if (size == MAX_ARRAY) {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap.add(value);
+        }
+        int position = -Arrays.binarySearch(values, 0, size, (char) value) - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.min(values.length * 2, MAX_ARRAY));
+        }
+        System.arraycopy(values, position, values, position + 1, size - position);
+        values[position] = (char) value;
+        size++;
+        return this;
+    }
+
+    @Override
+    Container remove(int value) {
+        int position = Arrays.binarySearch(values, 0, size, (char) value);
+        System.arraycopy(values, position + 1, values, position, size - position - 1);
+        size--;
+        return this;
+    }
+
+    @Override
+    int rank(int value) {
+        int position = Arrays.binarySearch(values, 0, size, (char) value);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    @Override
+    int next(int from) {
+        if (from > MAX_VALUE) {
+            return -1;
+        }
+        int position = rank(from);
+        return position < size ? values[position] : -1;
+    }
+
+    @Override
+    int sizeInBytes() {
+        return size * 2;
+    }
+
+    @Override
+    Container copy() {
+        return new ArrayContainer(values, size);
+    }
+
+    @Override
+    Container and(Container other) {
+        if (!(other instanceof ArrayContainer)) {
+            return super.and(other);
+        }
+        ArrayContainer that = (ArrayContainer) other;
+        char[] merged = new char[Math.min(size, that.size)];
+        int count = 0;
+        for (int i = 0, j = 0; i < size && j < that.size; ) {
+            if (values[i] < that.values[j]) {
+                i++;
+            } else if (values[i] > that.values[j]) {
+                j++;
+            } else {
+                merged[count++] = values[i];
+                i++;
+                j++;
+            }
+        }
+        return new ArrayContainer(merged, count);
+    }
+
+    @Override
+    Container or(Container other) {
+        if (!(other instanceof ArrayContainer)) {
+            return super.or(other);
+        }
+        ArrayContainer that = (ArrayContainer) other;
+        char[] merged = new char[size + that.size];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < size || j < that.size) {
+            if (j == that.size || (i < size && values[i] < that.values[j])) {
+                merged[count++] = values[i++];
+            } else {
+                if (i < size && values[i] == that.values[j]) {
+                    i++;
+                }
+                merged[count++] = that.values[j++];
+            }
+        }
+        return Container.of(merged, count);
+    }
+
+    @Override
+    Container optimize() {
+        Container optimized = super.optimize();
+        if (optimized == this && values.length > size) {
+            values = Arrays.copyOf(values, Math.max(size, 1));
+        }
+        return optimized;
+    }
+}
@@ -0,0 +1,184 @@
+package structures;
+
+/**
+ * A square matrix of bits packed into longs, one bit per (row, column) cell.
+ * Each row occupies a whole number of words so that a row can be scanned
+ * 64 columns at a time.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class BitMatrix {
+
+    /**
+     * The largest number of rows/columns whose words still fit in one array.
+     */
+    public static final int MAX_CAPACITY = 370703;
+
+    private static final int WORD_BITS = 64;
+
+    private long[] words;
+    private int capacity;
+    private int rowWords;
+
+    /**
+     * Creates a new matrix with every bit cleared.
+     *
+     * @param capacity the number of rows/columns in the matrix
+     */
+    public BitMatrix(int capacity) {
+        allocate(capacity);
+    }
+
+    private void allocate(int newCapacity) {
+        if (newCapacity < 0 || newCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Bit matrix cannot hold " + newCapacity + " rows");
+        }
+        capacity = newCapacity;
+        rowWords = wordsFor(newCapacity);
+        words = new long[newCapacity * rowWords];
+    }
+
+    private static int wordsFor(int bits) {
+        return (bits + WORD_BITS - 1) / WORD_BITS;
+    }
+
+    /**
+     * Returns the number of rows/columns in the matrix.
+     *
+     * @return the matrix capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Reports whether a bit is set.
+     *
+     * @param row the row of the bit
+     * @param column the column of the bit
+     * @return true if the bit is set, otherwise false
+     */
+    public boolean get(int row, int column) {
+        return (words[row * rowWords + (column >>> 6)] & (1L << column)) != 0;
+    }
+
+    /**
+     * Sets a bit.
+     *
+     * @param row the row of the bit
+     * @param column the column of the bit
+     * @return true if the bit was previously clear, otherwise false
+     */
+    public boolean set(int row, int column) {
+        int index = row * rowWords + (column >>> 6);
+        long before = words[index];
+        words[index] = before | (1L << column);
+        return words[index] != before;
+    }
+
+    /**
+     * Clears a bit.
+     *
+     * @param row the row of the bit
+     * @param column the column of the bit
+     * @return true if the bit was previously set, otherwise false
+     */
+    public boolean clear(int row, int column) {
+        int index = row * rowWords + (column >>> 6);
+        long before = words[index];
+        words[index] = before & ~(1L << column);
+        return words[index] != before;
+    }
+
+    /**
+     * Returns the first set column in a row at or after the given column.
+     *
+     * @param row the row to scan
+     * @param fromColumn the first column to consider
+     * @return the column of the next set bit, or -1 if there is none
+     */
+    public int nextSetBit(int row, int fromColumn) {
+        if (fromColumn >= capacity) {
+            return -1;
+        }
+        int start = row * rowWords;
+        int word = fromColumn >>> 6;
+        long bits = words[start + word] & (-1L << fromColumn);
+        while (true) {
+            if (bits != 0) {
+                return word * WORD_BITS + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == rowWords) {
+                return -1;
+            }
+            bits = words[start + word];
+        }
+    }
+
+    /**
+     * Returns the number of set bits in a row.
+     *
+     * @param row the row to count
+     * @return the number of set bits
+     */
+    public int rowCardinality(int row) {
+        int count = 0;
+        int start = row * rowWords;
+        for (int i = start; i < start + rowWords; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Grows or shrinks the matrix, keeping the bits that still fit.
+     *
+     * @param newCapacity the new number of rows/columns
+     */
+    public void resize(int newCapacity) {
+        long[] oldWords = words;
+        int oldRowWords = rowWords;
+        int keptRows = Math.min(capacity, newCapacity);
+        allocate(newCapacity);
+        int keptWords = Math.min(oldRowWords, rowWords);
+        for (int i = 0; i < keptRows; i++) {
+            System.arraycopy(oldWords, i * oldRowWords, words, i * rowWords, keptWords);
+        }
+        if (newCapacity % WORD_BITS != 0 && keptWords == rowWords) {
+            // drop columns that were cut off inside the last word of each row
+            long mask = -1L >>> (WORD_BITS - newCapacity % WORD_BITS);
+            for (int i = 0; i < keptRows; i++) {
+                words[i * rowWords + rowWords - 1] &= mask;
+            }
+        }
+    }
+
+    /**
+     * Clears every bit in the matrix.
+     */
+    public void clear() {
+        words = new long[words.length];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < capacity; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(i).append(" -> [");
+            boolean first = true;
+            for (int j = nextSetBit(i, 0); j != -1; j = nextSetBit(i, j + 1)) {
+                if (!first) {
+                    builder.append(", ");
+                }
+                first = false;
+                builder.append(j);
+            }
+            builder.append(']');
+        }
+        return builder.toString();
+    }
+}
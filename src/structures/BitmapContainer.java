@@ -0,0 +1,133 @@
+package structures;
+
+/**
+ * A dense container block stored as a 2^16-bit bitmap.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+class BitmapContainer extends Container {
+
+    private static final int WORDS = (MAX_VALUE + 1) / 64;
+
+    private final long[] words;
+    private int cardinality;
+
+    BitmapContainer() {
+        words = new long[WORDS];
+    }
+
+    private BitmapContainer(long[] words, int cardinality) {
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(int value) {
+        return (words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    Container add(int value) {
+        words[value >>> 6] |= 1L << value;
+        cardinality++;
+        return this;
+    }
+
+    @Override
+    Container remove(int value) {
+        words[value >>> 6] &= ~(1L << value);
+        cardinality--;
+        return cardinality <= MAX_ARRAY ? Container.plain(this) : this;
+    }
+
+    @Override
+    int rank(int value) {
+        int word = value >>> 6;
+        int rank = 0;
+        for (int i = 0; i < word; i++) {
+            rank += Long.bitCount(words[i]);
+        }
+        return rank + Long.bitCount(words[word] & ((1L << value) - 1));
+    }
+
+    @Override
+    int next(int from) {
+        if (from > MAX_VALUE) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long bits = words[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == WORDS) {
+                return -1;
+            }
+            bits = words[word];
+        }
+        return word * 64 + Long.numberOfTrailingZeros(bits);
+    }
+
+    @Override
+    int sizeInBytes() {
+        return BITMAP_BYTES;
+    }
+
+    @Override
+    Container copy() {
+        return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    @Override
+    Container and(Container other) {
+        if (!(other instanceof BitmapContainer)) {
+            return super.and(other);
+        }
+        long[] that = ((BitmapContainer) other).words;
+        long[] result = new long[WORDS];
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] & that[i];
+            count += Long.bitCount(result[i]);
+        }
+        BitmapContainer bitmap = new BitmapContainer(result, count);
+        return count <= MAX_ARRAY ? Container.plain(bitmap) : bitmap;
+    }
+
+    @Override
+    Container or(Container other) {
+        if (!(other instanceof BitmapContainer)) {
+            BitmapContainer bitmap = (BitmapContainer) copy();
+            for (int value = other.next(0); value != -1; value = other.next(value + 1)) {
+                if (!bitmap.contains(value)) {
+                    bitmap.add(value);
+                }
+            }
+            return bitmap;
+        }
+        long[] that = ((BitmapContainer) other).words;
+        long[] result = new long[WORDS];
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] | that[i];
+            count += Long.bitCount(result[i]);
+        }
+        return new BitmapContainer(result, count);
+    }
+
+    @Override
+    int runCount() {
+        int runs = 0;
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            // a run starts at every set bit whose lower neighbour is clear
+            long carry = i == 0 ? 0 : words[i - 1] >>> 63;
+            runs += Long.bitCount(word & ~((word << 1) | carry));
+        }
+        return runs;
+    }
+}
@@ -0,0 +1,275 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * The weighted out-edges of one vertex, stored as a compressed bitmap of
+ * destination columns in the style of a Roaring bitmap. Columns are split into
+ * blocks of 2^16 by their high bits, and each non-empty block is kept in whichever
+ * container suits its density: a sorted array, a bitmap, or a list of runs.
+ * Lookups cost a binary search over the blocks plus one container lookup.
+ *
+ * Weights live in a compact int array parallel to the columns: the weight of a
+ * column is stored at that column's rank, its position in ascending order.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class CompressedRow {
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+    private int cardinality;
+    private int[] weights;
+
+    /**
+     * Creates a new, empty row.
+     */
+    public CompressedRow() {
+        keys = new char[1];
+        containers = new Container[1];
+        weights = new int[2];
+    }
+
+    private int findKey(int column) {
+        return Arrays.binarySearch(keys, 0, size, (char) (column >>> 16));
+    }
+
+    private int rank(int block, int low) {
+        int rank = 0;
+        for (int i = 0; i < block; i++) {
+            rank += containers[i].cardinality();
+        }
+        return rank + containers[block].rank(low);
+    }
+
+    /**
+     * Returns the number of columns in the row.
+     *
+     * @return the cardinality
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Reports whether a column is in the row.
+     *
+     * @param column a non-negative column
+     * @return true if the column is present, otherwise false
+     */
+    public boolean contains(int column) {
+        int block = findKey(column);
+        return block >= 0 && containers[block].contains(column & Container.MAX_VALUE);
+    }
+
+    /**
+     * Returns the weight stored for a column.
+     *
+     * @param column a non-negative column
+     * @return the weight, or -1 if the column is not in the row
+     */
+    public int weight(int column) {
+        int block = findKey(column);
+        int low = column & Container.MAX_VALUE;
+        if (block < 0 || !containers[block].contains(low)) {
+            return -1;
+        }
+        return weights[rank(block, low)];
+    }
+
+    /**
+     * Adds a column with its weight. If the column is already present, then no change
+     * is made to the row.
+     *
+     * @param column a non-negative column
+     * @param weight the weight of the column
+     * @return true if the column was added, otherwise false
+     */
+    public boolean add(int column, int weight) {
+        int block = findKey(column);
+        int low = column & Container.MAX_VALUE;
+        if (block < 0) {
+            block = -block - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            System.arraycopy(keys, block, keys, block + 1, size - block);
+            System.arraycopy(containers, block, containers, block + 1, size - block);
+            keys[block] = (char) (column >>> 16);
+            containers[block] = new ArrayContainer();
+            size++;
+        } else if (containers[block].contains(low)) {
+            return false;
+        }
+
+        int rank = rank(block, low);
+        containers[block] = containers[block].add(low);
+        if (cardinality == weights.length) {
+            weights = Arrays.copyOf(weights, cardinality + (cardinality >> 1) + 1);
+        }
+        System.arraycopy(weights, rank, weights, rank + 1, cardinality - rank);
+        weights[rank] = weight;
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Removes a column and its weight.
+     *
+     * @param column a non-negative column
+     * @return true if the column was found and removed, otherwise false
+     */
+    public boolean remove(int column) {
+        int block = findKey(column);
+        int low = column & Container.MAX_VALUE;
+        if (block < 0 || !containers[block].contains(low)) {
+            return false;
+        }
+
+        int rank = rank(block, low);
+        System.arraycopy(weights, rank + 1, weights, rank, cardinality - rank - 1);
+        cardinality--;
+        containers[block] = containers[block].remove(low);
+        if (containers[block].cardinality() == 0) {
+            System.arraycopy(keys, block + 1, keys, block, size - block - 1);
+            System.arraycopy(containers, block + 1, containers, block, size - block - 1);
+            containers[--size] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the smallest column in the row at or after a starting column. Iterate
+     * over the row with {@code for (int j = row.next(0); j != -1; j = row.next(j + 1))}.
+     *
+     * @param from the starting column
+     * @return the next column, or -1 if there is none
+     */
+    public int next(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int block = findKey(from);
+        int low = from & Container.MAX_VALUE;
+        if (block < 0) {
+            block = -block - 1;
+            low = 0;
+        }
+        for (; block < size; block++, low = 0) {
+            int value = containers[block].next(low);
+            if (value != -1) {
+                return keys[block] << 16 | value;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the columns in both this row and another, block by block. The weights of
+     * the result are taken from this row.
+     *
+     * @param other the other row
+     * @return a new row with the intersection
+     */
+    public CompressedRow and(CompressedRow other) {
+        CompressedRow result = new CompressedRow();
+        for (int i = 0, j = 0; i < size && j < other.size; ) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.append(keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        result.fillWeights(this, null);
+        return result;
+    }
+
+    /**
+     * Returns the columns in either this row or another, block by block. Columns in
+     * both rows take their weight from this row.
+     *
+     * @param other the other row
+     * @return a new row with the union
+     */
+    public CompressedRow or(CompressedRow other) {
+        CompressedRow result = new CompressedRow();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.append(keys[i], containers[i].copy());
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        result.fillWeights(this, other);
+        return result;
+    }
+
+    private void append(char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        keys[size] = key;
+        containers[size++] = container;
+        cardinality += container.cardinality();
+    }
+
+    private void fillWeights(CompressedRow first, CompressedRow second) {
+        weights = new int[Math.max(cardinality, 1)];
+        int rank = 0;
+        for (int column = next(0); column != -1; column = next(column + 1)) {
+            int weight = first.weight(column);
+            weights[rank++] = weight == -1 ? second.weight(column) : weight;
+        }
+    }
+
+    /**
+     * Converts each block to its smallest container, turning long stretches of
+     * columns into runs, and trims unused array space. Worth calling once a row has
+     * been loaded.
+     */
+    public void optimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].optimize();
+        }
+        keys = Arrays.copyOf(keys, Math.max(size, 1));
+        containers = Arrays.copyOf(containers, Math.max(size, 1));
+        weights = Arrays.copyOf(weights, Math.max(cardinality, 1));
+    }
+
+    /**
+     * Returns the approximate number of bytes used by the columns and weights.
+     *
+     * @return the storage size
+     */
+    public long sizeInBytes() {
+        long bytes = (long) weights.length * Integer.BYTES + keys.length * 2L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedRow{cardinality=" + cardinality + ", blocks=" + size + '}';
+    }
+}
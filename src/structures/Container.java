@@ -0,0 +1,193 @@
+package structures;
+
+/**
+ * One block of 2^16 columns of a {@link CompressedRow}, holding the low 16 bits of
+ * each column in the block. Like the containers of a Roaring bitmap, a block is
+ * stored as a sorted array while it is sparse, as a bitmap once it holds more than
+ * {@link #MAX_ARRAY} values, and as a list of runs when that is smaller still.
+ *
+ * Mutators return the container that now holds the block, which is a different
+ * container whenever the block changes representation.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+abstract class Container {
+
+    /**
+     * The most values an array container holds before it becomes a bitmap.
+     */
+    static final int MAX_ARRAY = 4096;
+
+    static final int MAX_VALUE = 0xFFFF;
+    static final int BITMAP_BYTES = 8192;
+
+    /**
+     * Returns the number of values in the container.
+     *
+     * @return the cardinality
+     */
+    abstract int cardinality();
+
+    /**
+     * Reports whether a value is in the container.
+     *
+     * @param value a value from 0 to 0xFFFF
+     * @return true if the value is present, otherwise false
+     */
+    abstract boolean contains(int value);
+
+    /**
+     * Adds a value that is not yet in the container.
+     *
+     * @param value the value to add
+     * @return the container now holding the block
+     */
+    abstract Container add(int value);
+
+    /**
+     * Removes a value that is in the container.
+     *
+     * @param value the value to remove
+     * @return the container now holding the block
+     */
+    abstract Container remove(int value);
+
+    /**
+     * Returns the number of values smaller than a value.
+     *
+     * @param value the value to rank
+     * @return the count of smaller values
+     */
+    abstract int rank(int value);
+
+    /**
+     * Returns the smallest value at or after a starting point.
+     *
+     * @param from the starting value, may be past 0xFFFF
+     * @return the next value, or -1 if there is none
+     */
+    abstract int next(int from);
+
+    /**
+     * Returns the number of bytes the values occupy.
+     *
+     * @return the storage size
+     */
+    abstract int sizeInBytes();
+
+    /**
+     * Returns an independent copy of the container.
+     *
+     * @return the copy
+     */
+    abstract Container copy();
+
+    /**
+     * Returns the values in both this container and another.
+     *
+     * @param other the other container
+     * @return a new container with the intersection
+     */
+    Container and(Container other) {
+        Container small = cardinality() <= other.cardinality() ? this : other;
+        Container large = small == this ? other : this;
+        char[] values = new char[small.cardinality()];
+        int count = 0;
+        for (int value = small.next(0); value != -1; value = small.next(value + 1)) {
+            if (large.contains(value)) {
+                values[count++] = (char) value;
+            }
+        }
+        return of(values, count);
+    }
+
+    /**
+     * Returns the values in either this container or another.
+     *
+     * @param other the other container
+     * @return a new container with the union
+     */
+    Container or(Container other) {
+        char[] values = new char[Math.min(cardinality() + other.cardinality(), MAX_VALUE + 1)];
+        int count = 0;
+        int a = next(0);
+        int b = other.next(0);
+        while (a != -1 || b != -1) {
+            if (b == -1 || (a != -1 && a < b)) {
+                values[count++] = (char) a;
+                a = next(a + 1);
+            } else {
+                if (a == b) {
+                    a = next(a + 1);
+                }
+                values[count++] = (char) b;
+                b = other.next(b + 1);
+            }
+        }
+        return of(values, count);
+    }
+
+    /**
+     * Returns the smallest representation of the container, converting to or from
+     * runs as needed.
+     *
+     * @return the container now holding the block
+     */
+    Container optimize() {
+        int runs = runCount();
+        if (runs * 4 < plainBytes()) {
+            return RunContainer.from(this, runs);
+        }
+        return this;
+    }
+
+    int plainBytes() {
+        return cardinality() <= MAX_ARRAY ? cardinality() * 2 : BITMAP_BYTES;
+    }
+
+    int runCount() {
+        int runs = 0;
+        int previous = -2;
+        for (int value = next(0); value != -1; value = next(value + 1)) {
+            if (value != previous + 1) {
+                runs++;
+            }
+            previous = value;
+        }
+        return runs;
+    }
+
+    /**
+     * Builds an array or bitmap container from sorted values.
+     *
+     * @param values the sorted values
+     * @param count the number of values to use
+     * @return the new container
+     */
+    static Container of(char[] values, int count) {
+        if (count <= MAX_ARRAY) {
+            return new ArrayContainer(values, count);
+        }
+        BitmapContainer bitmap = new BitmapContainer();
+        for (int i = 0; i < count; i++) {
+            bitmap.add(values[i]);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Builds an array or bitmap container holding the same values as another.
+     *
+     * @param container the container to convert
+     * @return the new container
+     */
+    static Container plain(Container container) {
+        char[] values = new char[container.cardinality()];
+        int count = 0;
+        for (int value = container.next(0); value != -1; value = container.next(value + 1)) {
+            values[count++] = (char) value;
+        }
+        return of(values, count);
+    }
+}
@@ -0,0 +1,154 @@
+package structures;
+
+/**
+ * Shared bookkeeping for the on-heap weight matrices. Each subclass stores its
+ * cells row-major in primitive arrays of its own width. Up to
+ * {@link #FLAT_CAPACITY} rows/columns, the whole matrix is a single array and the
+ * cell for (row, column) lives at {@code row * capacity + column}. Larger matrices
+ * no longer fit in one array, so their rows are split across chunks of a power-of-two
+ * number of rows each, and a row maps to its chunk with a shift.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+abstract class HeapWeightMatrix implements WeightMatrix {
+
+    /**
+     * The largest number of rows/columns whose cell count still fits in one array.
+     */
+    public static final int FLAT_CAPACITY = 46340;
+
+    /**
+     * The largest number of cells in one chunk of a matrix beyond {@link #FLAT_CAPACITY}.
+     */
+    static final int CHUNK_CELLS = 1 << 30;
+
+    protected int capacity;
+    protected int chunkShift;
+    protected int chunkMask;
+    private int rowsPerChunk;
+    private final int flatCapacity;
+    private final int chunkCells;
+
+    HeapWeightMatrix(int capacity) {
+        this(capacity, FLAT_CAPACITY, CHUNK_CELLS);
+    }
+
+    /**
+     * Creates a matrix that switches to chunked rows beyond a custom limit, so the
+     * chunked layout can be exercised without allocating gigabytes.
+     *
+     * @param capacity the number of rows/columns in the matrix
+     * @param flatCapacity the largest capacity kept in a single array, at most
+     *                     {@link #FLAT_CAPACITY}
+     * @param chunkCells the largest number of cells in one chunk, at least 1
+     */
+    HeapWeightMatrix(int capacity, int flatCapacity, int chunkCells) {
+        if (flatCapacity < 0 || flatCapacity > FLAT_CAPACITY) {
+            throw new IllegalArgumentException("Flat capacity must be between 0 and " + FLAT_CAPACITY);
+        }
+        if (chunkCells < 1) {
+            throw new IllegalArgumentException("Chunks must hold at least one cell");
+        }
+        this.flatCapacity = flatCapacity;
+        this.chunkCells = chunkCells;
+        layout(capacity);
+    }
+
+    /**
+     * Sets the capacity and works out how rows are split across chunks. Subclasses
+     * allocate their arrays afterwards, sized by {@link #chunkCount()} and
+     * {@link #chunkLength(int)}.
+     *
+     * @param newCapacity the number of rows/columns in the matrix
+     */
+    void layout(int newCapacity) {
+        if (newCapacity < 0 || newCapacity > BitMatrix.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Weight matrix cannot hold " + newCapacity + " rows");
+        }
+        capacity = newCapacity;
+        if (newCapacity <= flatCapacity) {
+            // one chunk holds every row, row >>> 31 is always 0
+            rowsPerChunk = Math.max(newCapacity, 1);
+            chunkShift = 31;
+            chunkMask = Integer.MAX_VALUE;
+        } else {
+            // a chunk always holds at least one whole row
+            rowsPerChunk = Integer.highestOneBit(Math.max(chunkCells / newCapacity, 1));
+            chunkShift = Integer.numberOfTrailingZeros(rowsPerChunk);
+            chunkMask = rowsPerChunk - 1;
+        }
+    }
+
+    int chunkCount() {
+        return (capacity + rowsPerChunk - 1) / rowsPerChunk;
+    }
+
+    int chunkLength(int chunk) {
+        return Math.min(rowsPerChunk, capacity - chunk * rowsPerChunk) * capacity;
+    }
+
+    int offset(int row, int column) {
+        return (row & chunkMask) * capacity + column;
+    }
+
+    /**
+     * Creates the narrowest on-heap matrix that can hold the given weight.
+     *
+     * @param weight the largest weight the matrix must hold
+     * @param capacity the number of rows/columns in the matrix
+     * @return an empty matrix
+     */
+    static HeapWeightMatrix forWeight(long weight, int capacity) {
+        return forWeight(weight, capacity, FLAT_CAPACITY, CHUNK_CELLS);
+    }
+
+    private static HeapWeightMatrix forWeight(long weight, int capacity, int flatCapacity, int chunkCells) {
+        if (weight <= ByteWeightMatrix.MAX_WEIGHT) {
+            return new ByteWeightMatrix(capacity, flatCapacity, chunkCells);
+        } else if (weight <= ShortWeightMatrix.MAX_WEIGHT) {
+            return new ShortWeightMatrix(capacity, flatCapacity, chunkCells);
+        } else if (weight <= Integer.MAX_VALUE) {
+            return new IntWeightMatrix(capacity, flatCapacity, chunkCells);
+        }
+        return new LongWeightMatrix(capacity, flatCapacity, chunkCells);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int maxCapacity() {
+        return BitMatrix.MAX_CAPACITY;
+    }
+
+    @Override
+    public void remove(int row, int column) {
+        set(row, column, 0);
+    }
+
+    /**
+     * Copies every cell into the narrowest on-heap matrix that can hold the
+     * given weight.
+     *
+     * @param weight a weight larger than {@link #maxWeight()}
+     * @return a wider copy of this matrix
+     */
+    @Override
+    public WeightMatrix widen(long weight) {
+        HeapWeightMatrix wider = forWeight(Math.max(weight, maxWeight() + 1), capacity, flatCapacity, chunkCells);
+        for (int i = 0; i < capacity; i++) {
+            for (int j = 0; j < capacity; j++) {
+                wider.set(i, j, get(i, j));
+            }
+        }
+        return wider;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{capacity=" + capacity + '}';
+    }
+}
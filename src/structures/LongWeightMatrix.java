@@ -0,0 +1,88 @@
+package structures;
+
+/**
+ * An on-heap weight matrix stored row-major in long arrays. Up to
+ * {@link #FLAT_CAPACITY} rows/columns this is a single contiguous array, so the
+ * cell for (row, column) lives at {@code row * capacity + column}; larger matrices
+ * split their rows across chunks. It holds weights too large for an int.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class LongWeightMatrix extends HeapWeightMatrix {
+
+    /**
+     * The largest weight a cell can hold.
+     */
+    public static final long MAX_WEIGHT = Long.MAX_VALUE;
+
+    private long[][] chunks;
+
+    /**
+     * Creates a new matrix with every cell set to zero.
+     *
+     * @param capacity the number of rows/columns in the matrix
+     */
+    public LongWeightMatrix(int capacity) {
+        super(capacity);
+        chunks = allocate();
+    }
+
+    /**
+     * Creates a new matrix with every cell set to zero that keeps its rows in one
+     * array only up to a given capacity, and splits larger matrices into chunks of
+     * at most the given number of cells.
+     *
+     * @param capacity the number of rows/columns in the matrix
+     * @param flatCapacity the largest capacity kept in a single array, at most
+     *                     {@link #FLAT_CAPACITY}
+     * @param chunkCells the largest number of cells in one chunk, at least 1
+     */
+    public LongWeightMatrix(int capacity, int flatCapacity, int chunkCells) {
+        super(capacity, flatCapacity, chunkCells);
+        chunks = allocate();
+    }
+
+    private long[][] allocate() {
+        long[][] allocated = new long[chunkCount()][];
+        for (int k = 0; k < allocated.length; k++) {
+            allocated[k] = new long[chunkLength(k)];
+        }
+        return allocated;
+    }
+
+    @Override
+    public long maxWeight() {
+        return MAX_WEIGHT;
+    }
+
+    @Override
+    public long get(int row, int column) {
+        return chunks[row >>> chunkShift][offset(row, column)];
+    }
+
+    @Override
+    public void set(int row, int column, long weight) {
+        chunks[row >>> chunkShift][offset(row, column)] = weight;
+    }
+
+    @Override
+    public void resize(int newCapacity) {
+        long[][] oldChunks = chunks;
+        int oldCapacity = capacity;
+        int oldShift = chunkShift;
+        int oldMask = chunkMask;
+        int keptRows = Math.min(oldCapacity, newCapacity);
+        layout(newCapacity);
+        chunks = allocate();
+        for (int i = 0; i < keptRows; i++) {
+            System.arraycopy(oldChunks[i >>> oldShift], (i & oldMask) * oldCapacity,
+                    chunks[i >>> chunkShift], offset(i, 0), keptRows);
+        }
+    }
+
+    @Override
+    public void clear() {
+        chunks = allocate();
+    }
+}
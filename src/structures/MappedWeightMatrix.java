@@ -0,0 +1,283 @@
+package structures;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A weight matrix that lives in a memory-mapped file, so the operating system's
+ * page cache decides which parts of the matrix stay in memory and the matrix
+ * survives a restart.
+ *
+ * The file is a small header, then a row index holding the number of weights in
+ * each row, then the cells in row-major order. Every row is {@code maxCapacity}
+ * cells wide no matter what the current capacity is, so growing the matrix only
+ * extends the file and maps the new rows; no existing cell moves. The unused tail
+ * of each row is never written and stays a hole in file systems that support
+ * sparse files.
+ *
+ * Cells hold {@code weight + 1}, so the zeros of a freshly extended file read as
+ * empty cells and {@link #contains(int, int)} can tell which cells hold a weight
+ * after the file is reopened. The row index is kept up to date by every write, so
+ * a reopened matrix can skip its empty rows with {@link #rowSize(int)} instead of
+ * reading every cell.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class MappedWeightMatrix implements WeightMatrix, Closeable {
+
+    private static final int MAGIC = 0x474d4154;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int CHUNK_BYTES = 1 << 30;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer rowSizes;
+    private final long cellStart;
+    private final int stride;
+    private final int chunkShift;
+    private MappedByteBuffer[] chunks;
+    private int capacity;
+
+    private MappedWeightMatrix(FileChannel channel, int stride, int capacity) throws IOException {
+        this.channel = channel;
+        this.stride = stride;
+        this.capacity = capacity;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.nativeOrder());
+        rowSizes = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES, (long) stride * Integer.BYTES);
+        rowSizes.order(ByteOrder.nativeOrder());
+        cellStart = HEADER_BYTES + (long) stride * Integer.BYTES;
+        // rows per chunk is a power of two so a row maps to its chunk with a shift
+        chunkShift = 31 - Integer.numberOfLeadingZeros(Math.max(CHUNK_BYTES / (stride * Integer.BYTES), 1));
+        chunks = new MappedByteBuffer[(stride >>> chunkShift) + 1];
+    }
+
+    /**
+     * Creates a new matrix file, replacing any file at the same path.
+     *
+     * @param file the file to hold the matrix
+     * @param capacity the initial number of rows/columns in the matrix
+     * @param maxCapacity the largest capacity the matrix can ever grow to
+     * @return the new matrix
+     * @throws IOException if the file cannot be created
+     */
+    public static MappedWeightMatrix create(Path file, int capacity, int maxCapacity) throws IOException {
+        if (maxCapacity < 1 || maxCapacity > BitMatrix.MAX_CAPACITY || capacity < 0 || capacity > maxCapacity) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity + " of " + maxCapacity);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        MappedWeightMatrix matrix = new MappedWeightMatrix(channel, maxCapacity, capacity);
+        matrix.header.putInt(0, MAGIC);
+        matrix.header.putInt(4, maxCapacity);
+        matrix.header.putInt(8, capacity);
+        matrix.header.putInt(12, VERSION);
+        return matrix;
+    }
+
+    /**
+     * Opens a matrix file written earlier by {@link #create(Path, int, int)}.
+     *
+     * @param file the file holding the matrix
+     * @return the matrix, with the capacity and cells it had when last used
+     * @throws IOException if the file cannot be read, is not a matrix file, or was
+     *         written without a row index
+     */
+    public static MappedWeightMatrix open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+        channel.read(buffer, 0);
+        if (buffer.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException(file + " is not a weight matrix file");
+        }
+        if (buffer.getInt(12) != VERSION) {
+            channel.close();
+            throw new IOException(file + " was written by an older version without a row index");
+        }
+        return new MappedWeightMatrix(channel, buffer.getInt(4), buffer.getInt(8));
+    }
+
+    private MappedByteBuffer chunk(int row) {
+        int index = row >>> chunkShift;
+        MappedByteBuffer chunk = chunks[index];
+        if (chunk == null) {
+            long rowBytes = (long) stride * Integer.BYTES;
+            int firstRow = index << chunkShift;
+            int rows = Math.min(1 << chunkShift, capacity - firstRow);
+            try {
+                chunk = channel.map(FileChannel.MapMode.READ_WRITE, cellStart + firstRow * rowBytes,
+                    rows * rowBytes);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            chunk.order(ByteOrder.nativeOrder());
+            chunks[index] = chunk;
+        }
+        return chunk;
+    }
+
+    private int offset(int row, int column) {
+        int rowInChunk = row & ((1 << chunkShift) - 1);
+        return (rowInChunk * stride + column) * Integer.BYTES;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int maxCapacity() {
+        return stride;
+    }
+
+    /**
+     * Reports whether a cell holds a weight.
+     *
+     * @param row the row of the cell
+     * @param column the column of the cell
+     * @return true if a weight is stored in the cell, otherwise false
+     */
+    public boolean contains(int row, int column) {
+        return chunk(row).getInt(offset(row, column)) != 0;
+    }
+
+    /**
+     * Returns the number of weights stored in a row, read from the row index
+     * without touching the row's cells.
+     *
+     * @param row a row of the matrix
+     * @return the number of cells in the row that hold a weight
+     */
+    public int rowSize(int row) {
+        return rowSizes.getInt(row * Integer.BYTES);
+    }
+
+    private void addToRowSize(int row, int delta) {
+        rowSizes.putInt(row * Integer.BYTES, rowSize(row) + delta);
+    }
+
+    @Override
+    public long maxWeight() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public long get(int row, int column) {
+        return chunk(row).getInt(offset(row, column)) - 1;
+    }
+
+    @Override
+    public void set(int row, int column, long weight) {
+        MappedByteBuffer chunk = chunk(row);
+        int offset = offset(row, column);
+        if (chunk.getInt(offset) == 0) {
+            addToRowSize(row, 1);
+        }
+        chunk.putInt(offset, (int) weight + 1);
+    }
+
+    @Override
+    public void remove(int row, int column) {
+        MappedByteBuffer chunk = chunk(row);
+        int offset = offset(row, column);
+        if (chunk.getInt(offset) != 0) {
+            addToRowSize(row, -1);
+            chunk.putInt(offset, 0);
+        }
+    }
+
+    /**
+     * Grows or shrinks the matrix. Growing extends the file and maps the new rows
+     * without moving any existing cell.
+     *
+     * @param newCapacity the new number of rows/columns
+     */
+    @Override
+    public void resize(int newCapacity) {
+        if (newCapacity < 0 || newCapacity > stride) {
+            throw new IllegalArgumentException("Weight matrix cannot hold " + newCapacity + " rows");
+        }
+        int oldCapacity = capacity;
+        for (int i = 0; i < Math.min(oldCapacity, newCapacity); i++) {
+            // cut-off columns must not reappear if the matrix grows again
+            for (int j = newCapacity; j < oldCapacity; j++) {
+                remove(i, j);
+            }
+        }
+        // truncation empties the cut-off rows, so their index entries go too
+        for (int i = newCapacity; i < oldCapacity; i++) {
+            rowSizes.putInt(i * Integer.BYTES, 0);
+        }
+        capacity = newCapacity;
+        header.putInt(8, newCapacity);
+        // the chunk holding the old last row may now be mapped too short or too long
+        for (int i = Math.min(oldCapacity, newCapacity) >>> chunkShift; i < chunks.length; i++) {
+            chunks[i] = null;
+        }
+        try {
+            if (newCapacity < oldCapacity) {
+                channel.truncate(cellStart + (long) newCapacity * stride * Integer.BYTES);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Forgets every weight by truncating the file back to an empty region of the
+     * same capacity.
+     */
+    @Override
+    public void clear() {
+        chunks = new MappedByteBuffer[chunks.length];
+        for (int i = 0; i < capacity; i++) {
+            rowSizes.putInt(i * Integer.BYTES, 0);
+        }
+        try {
+            channel.truncate(cellStart);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes any changed cells through to the file.
+     */
+    public void flush() {
+        header.force();
+        rowSizes.force();
+        for (MappedByteBuffer chunk : chunks) {
+            if (chunk != null) {
+                chunk.force();
+            }
+        }
+    }
+
+    /**
+     * Flushes the matrix and closes the file. The matrix cannot be used afterwards.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        chunks = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "MappedWeightMatrix{capacity=" + capacity + ", maxCapacity=" + stride + '}';
+    }
+}
@@ -0,0 +1,175 @@
+package structures;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A weight matrix stored outside the Java heap in direct byte buffers. The
+ * garbage collector never scans or copies the cells, and the matrix can be larger
+ * than the heap. Rows are split across buffers of at most {@link #CHUNK_BYTES}
+ * bytes, since a single buffer is limited to 2 GB.
+ *
+ * Buffers are allocated when a row in them is first written. clear() frees every
+ * buffer straight away instead of waiting for the garbage collector.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class OffHeapWeightMatrix implements WeightMatrix {
+
+    /**
+     * The largest size of a single buffer.
+     */
+    public static final int CHUNK_BYTES = 1 << 30;
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            // explicit release is unavailable, buffers are freed when collected instead
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private ByteBuffer[] chunks;
+    private int capacity;
+    private int chunkShift;
+
+    /**
+     * Creates a new matrix with every cell set to zero.
+     *
+     * @param capacity the number of rows/columns in the matrix
+     */
+    public OffHeapWeightMatrix(int capacity) {
+        allocate(capacity);
+    }
+
+    private void allocate(int newCapacity) {
+        if (newCapacity < 0 || newCapacity > BitMatrix.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Weight matrix cannot hold " + newCapacity + " rows");
+        }
+        capacity = newCapacity;
+        // rows per chunk is a power of two so a row maps to its chunk with a shift
+        int rowBytes = Math.max(newCapacity, 1) * Integer.BYTES;
+        chunkShift = 31 - Integer.numberOfLeadingZeros(Math.max(CHUNK_BYTES / rowBytes, 1));
+        chunks = new ByteBuffer[(newCapacity >>> chunkShift) + 1];
+    }
+
+    private ByteBuffer chunk(int row) {
+        int index = row >>> chunkShift;
+        ByteBuffer chunk = chunks[index];
+        if (chunk == null) {
+            int rows = Math.min(1 << chunkShift, capacity - (index << chunkShift));
+            chunk = ByteBuffer.allocateDirect(rows * capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+            chunks[index] = chunk;
+        }
+        return chunk;
+    }
+
+    private int offset(int row, int column) {
+        int rowInChunk = row & ((1 << chunkShift) - 1);
+        return (rowInChunk * capacity + column) * Integer.BYTES;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int maxCapacity() {
+        return BitMatrix.MAX_CAPACITY;
+    }
+
+    @Override
+    public long maxWeight() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public long get(int row, int column) {
+        ByteBuffer chunk = chunks[row >>> chunkShift];
+        return chunk == null ? 0 : chunk.getInt(offset(row, column));
+    }
+
+    @Override
+    public void set(int row, int column, long weight) {
+        chunk(row).putInt(offset(row, column), (int) weight);
+    }
+
+    @Override
+    public void remove(int row, int column) {
+        ByteBuffer chunk = chunks[row >>> chunkShift];
+        if (chunk != null) {
+            chunk.putInt(offset(row, column), 0);
+        }
+    }
+
+    @Override
+    public void resize(int newCapacity) {
+        ByteBuffer[] oldChunks = chunks;
+        int oldCapacity = capacity;
+        int oldShift = chunkShift;
+        allocate(newCapacity);
+        int keptRows = Math.min(oldCapacity, newCapacity);
+        int keptBytes = keptRows * Integer.BYTES;
+        for (int i = 0; i < keptRows; i++) {
+            ByteBuffer oldChunk = oldChunks[i >>> oldShift];
+            if (oldChunk == null) {
+                continue;
+            }
+            ByteBuffer source = oldChunk.duplicate();
+            int start = (i & ((1 << oldShift) - 1)) * oldCapacity * Integer.BYTES;
+            source.limit(start + keptBytes).position(start);
+            ByteBuffer destination = chunk(i).duplicate();
+            destination.position(offset(i, 0));
+            destination.put(source);
+        }
+        release(oldChunks);
+    }
+
+    /**
+     * Resets every cell to zero and frees the off-heap memory behind them.
+     */
+    @Override
+    public void clear() {
+        release(chunks);
+        chunks = new ByteBuffer[chunks.length];
+    }
+
+    private static void release(ByteBuffer[] buffers) {
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[i] != null && INVOKE_CLEANER != null) {
+                try {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffers[i]);
+                } catch (ReflectiveOperationException ex) {
+                    // leave the buffer to the garbage collector
+                }
+            }
+            buffers[i] = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        int allocated = 0;
+        for (ByteBuffer chunk : chunks) {
+            if (chunk != null) {
+                allocated++;
+            }
+        }
+        return "OffHeapWeightMatrix{capacity=" + capacity + ", chunks=" + allocated + "/" + chunks.length + '}';
+    }
+}
@@ -0,0 +1,181 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * A container block stored as sorted runs of consecutive values, each run kept as
+ * its first and last value. Used for blocks with long stretches of set columns,
+ * where it is smaller than both an array and a bitmap.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+class RunContainer extends Container {
+
+    private char[] runs;
+    private int runCount;
+    private int cardinality;
+
+    private RunContainer(char[] runs, int runCount, int cardinality) {
+        this.runs = runs;
+        this.runCount = runCount;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Builds a run container holding the same values as another container.
+     *
+     * @param container the container to convert
+     * @param runCount the number of runs in the container
+     * @return the new container
+     */
+    static RunContainer from(Container container, int runCount) {
+        char[] runs = new char[runCount * 2];
+        int run = -1;
+        int previous = -2;
+        for (int value = container.next(0); value != -1; value = container.next(value + 1)) {
+            if (value != previous + 1) {
+                runs[++run * 2] = (char) value;
+            }
+            runs[run * 2 + 1] = (char) value;
+            previous = value;
+        }
+        return new RunContainer(runs, runCount, container.cardinality());
+    }
+
+    private int start(int run) {
+        return runs[run * 2];
+    }
+
+    private int end(int run) {
+        return runs[run * 2 + 1];
+    }
+
+    // the last run starting at or before the value, or -1
+    private int find(int value) {
+        int low = 0;
+        int high = runCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (start(middle) <= value) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private void insertRun(int run, int start, int end) {
+        if (runCount * 2 == runs.length) {
+            runs = Arrays.copyOf(runs, Math.max(runs.length * 2, 4));
+        }
+        System.arraycopy(runs, run * 2, runs, run * 2 + 2, (runCount - run) * 2);
+        runs[run * 2] = (char) start;
+        runs[run * 2 + 1] = (char) end;
+        runCount++;
+    }
+
+    private void deleteRun(int run) {
+        System.arraycopy(runs, run * 2 + 2, runs, run * 2, (runCount - run - 1) * 2);
+        runCount--;
+    }
+
+    private Container checkSize() {
+        return runCount * 4 > plainBytes() ? Container.plain(this) : this;
+    }
+
+    @Override
+    int cardinality() {
+        return cardinality;
+    }
+
+    @Override
+    boolean contains(int value) {
+        int run = find(value);
+        return run >= 0 && value <= end(run);
+    }
+
+    @Override
+    Container add(int value) {
+        int run = find(value);
+        boolean joinsPrevious = run >= 0 && end(run) + 1 == value;
+        boolean joinsNext = run + 1 < runCount && start(run + 1) == value + 1;
+        if (joinsPrevious && joinsNext) {
+            runs[run * 2 + 1] = runs[run * 2 + 3];
+            deleteRun(run + 1);
+        } else if (joinsPrevious) {
+            runs[run * 2 + 1] = (char) value;
+        } else if (joinsNext) {
+            runs[run * 2 + 2] = (char) value;
+        } else {
+            insertRun(run + 1, value, value);
+        }
+        cardinality++;
+        return checkSize();
+    }
+
+    @Override
+    Container remove(int value) {
+        int run = find(value);
+        int start = start(run);
+        int end = end(run);
+        if (start == end) {
+            deleteRun(run);
+        } else if (value == start) {
+            runs[run * 2] = (char) (value + 1);
+        } else if (value == end) {
+            runs[run * 2 + 1] = (char) (value - 1);
+        } else {
+            runs[run * 2 + 1] = (char) (value - 1);
+            insertRun(run + 1, value + 1, end);
+        }
+        cardinality--;
+        return checkSize();
+    }
+
+    @Override
+    int rank(int value) {
+        int rank = 0;
+        for (int run = 0; run < runCount && start(run) < value; run++) {
+            rank += Math.min(end(run) + 1, value) - start(run);
+        }
+        return rank;
+    }
+
+    @Override
+    int next(int from) {
+        if (from > MAX_VALUE) {
+            return -1;
+        }
+        int run = find(from);
+        if (run >= 0 && from <= end(run)) {
+            return from;
+        }
+        return run + 1 < runCount ? start(run + 1) : -1;
+    }
+
+    @Override
+    int sizeInBytes() {
+        return runCount * 4;
+    }
+
+    @Override
+    Container copy() {
+        return new RunContainer(Arrays.copyOf(runs, runCount * 2), runCount, cardinality);
+    }
+
+    @Override
+    int runCount() {
+        return runCount;
+    }
+
+    @Override
+    Container optimize() {
+        if (runCount * 4 >= plainBytes()) {
+            return Container.plain(this);
+        }
+        runs = Arrays.copyOf(runs, runCount * 2);
+        return this;
+    }
+}
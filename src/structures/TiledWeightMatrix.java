@@ -0,0 +1,136 @@
+package structures;
+
+/**
+ * A weight matrix split into 64 x 64 tiles that are allocated only when a weight is
+ * first written into them. Regions of the matrix without edges, such as the rows of
+ * sink vertices, cost one null reference per tile instead of a full row of cells.
+ *
+ * Resizing re-lays the tile directory but never copies cells: populated tiles keep
+ * their arrays and move by reference.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class TiledWeightMatrix implements WeightMatrix {
+
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    private int[][] tiles;
+    private int tilesPerSide;
+    private int capacity;
+    private int allocated;
+
+    /**
+     * Creates a new matrix with no tiles allocated.
+     *
+     * @param capacity the number of rows/columns in the matrix
+     */
+    public TiledWeightMatrix(int capacity) {
+        if (capacity < 0 || capacity > BitMatrix.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Weight matrix cannot hold " + capacity + " rows");
+        }
+        this.capacity = capacity;
+        tilesPerSide = tilesFor(capacity);
+        tiles = new int[tilesPerSide * tilesPerSide][];
+    }
+
+    private static int tilesFor(int capacity) {
+        return (capacity + TILE_MASK) >>> TILE_SHIFT;
+    }
+
+    private int tileIndex(int row, int column) {
+        return (row >>> TILE_SHIFT) * tilesPerSide + (column >>> TILE_SHIFT);
+    }
+
+    private static int cellIndex(int row, int column) {
+        return ((row & TILE_MASK) << TILE_SHIFT) | (column & TILE_MASK);
+    }
+
+    /**
+     * Returns the number of tiles that currently hold cells.
+     *
+     * @return the allocated tile count
+     */
+    public int allocatedTiles() {
+        return allocated;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int maxCapacity() {
+        return BitMatrix.MAX_CAPACITY;
+    }
+
+    @Override
+    public long maxWeight() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public long get(int row, int column) {
+        int[] tile = tiles[tileIndex(row, column)];
+        return tile == null ? 0 : tile[cellIndex(row, column)];
+    }
+
+    @Override
+    public void set(int row, int column, long weight) {
+        int index = tileIndex(row, column);
+        int[] tile = tiles[index];
+        if (tile == null) {
+            tile = new int[TILE_SIZE * TILE_SIZE];
+            tiles[index] = tile;
+            allocated++;
+        }
+        tile[cellIndex(row, column)] = (int) weight;
+    }
+
+    @Override
+    public void remove(int row, int column) {
+        int[] tile = tiles[tileIndex(row, column)];
+        if (tile != null) {
+            tile[cellIndex(row, column)] = 0;
+        }
+    }
+
+    @Override
+    public void resize(int newCapacity) {
+        if (newCapacity < 0 || newCapacity > BitMatrix.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Weight matrix cannot hold " + newCapacity + " rows");
+        }
+        int newTilesPerSide = tilesFor(newCapacity);
+        if (newTilesPerSide != tilesPerSide) {
+            int[][] newTiles = new int[newTilesPerSide * newTilesPerSide][];
+            int kept = Math.min(tilesPerSide, newTilesPerSide);
+            allocated = 0;
+            for (int i = 0; i < kept; i++) {
+                for (int j = 0; j < kept; j++) {
+                    int[] tile = tiles[i * tilesPerSide + j];
+                    if (tile != null) {
+                        newTiles[i * newTilesPerSide + j] = tile;
+                        allocated++;
+                    }
+                }
+            }
+            tiles = newTiles;
+            tilesPerSide = newTilesPerSide;
+        }
+        capacity = newCapacity;
+    }
+
+    @Override
+    public void clear() {
+        tiles = new int[tiles.length][];
+        allocated = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TiledWeightMatrix{capacity=" + capacity + ", tiles=" + allocated + "/" + tiles.length + '}';
+    }
+}
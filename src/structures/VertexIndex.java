@@ -0,0 +1,247 @@
+package structures;
+
+import java.util.Arrays;
+
+/**
+ * A one-to-one correspondence between vertices and non-negative int indices,
+ * like a {@code Bijection<V, Integer>} without boxing. Vertex to index lookups go
+ * through an open-addressing hash table with linear probing, and index to vertex
+ * lookups read a plain array, so neither direction allocates per entry.
+ *
+ * Null vertices are not supported.
+ *
+ * @param <V> Vertex type
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class VertexIndex<V> {
+
+    private static final int MIN_TABLE = 16;
+
+    private Object[] keys;
+    private int[] values;
+    private Object[] vertices;
+    private int size;
+
+    /**
+     * Creates a new, empty index.
+     */
+    public VertexIndex() {
+        this(MIN_TABLE);
+    }
+
+    /**
+     * Creates a new, empty index with room for the given number of vertices
+     * before it needs to grow.
+     *
+     * @param expected the number of vertices expected
+     */
+    public VertexIndex(int expected) {
+        keys = new Object[tableSizeFor(expected)];
+        values = new int[keys.length];
+        vertices = new Object[Math.max(expected, 1)];
+    }
+
+    private static int tableSizeFor(int expected) {
+        // keep the table at most half full so probe runs stay short
+        int size = MIN_TABLE;
+        while (size < expected * 2L && size < (1 << 30)) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    private int slot(Object vertex) {
+        int hash = vertex.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (keys.length - 1);
+    }
+
+    /**
+     * Returns the number of vertices in the index.
+     *
+     * @return the vertex count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns one more than the largest index the array side can currently hold.
+     * Every index in use is below this bound.
+     *
+     * @return the index bound
+     */
+    public int indexBound() {
+        return vertices.length;
+    }
+
+    /**
+     * Adds a vertex - index pair. Both the vertex and the index must not be in use.
+     *
+     * @param vertex the new vertex, throws a NullPointerException if null
+     * @param index the new index, throws an IllegalArgumentException if negative
+     * @return true if the pair was added, or false otherwise
+     */
+    public boolean add(V vertex, int index) {
+        if (vertex == null) {
+            throw new NullPointerException("Vertex cannot be null");
+        }
+        if (index < 0) {
+            throw new IllegalArgumentException("Index cannot be negative");
+        }
+        if (index < vertices.length && vertices[index] != null) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(vertex);
+        while (keys[slot] != null) {
+            if (keys[slot].equals(vertex)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = vertex;
+        values[slot] = index;
+        if (index >= vertices.length) {
+            vertices = Arrays.copyOf(vertices, Math.max(index + 1, vertices.length * 2));
+        }
+        vertices[index] = vertex;
+        size++;
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the index of a vertex.
+     *
+     * @param vertex the vertex to search for
+     * @return the index, or -1 if the vertex is not in the index
+     */
+    public int indexOf(Object vertex) {
+        if (vertex == null) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int slot = slot(vertex); keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot].equals(vertex)) {
+                return values[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the vertex at an index.
+     *
+     * @param index the index to look up
+     * @return the vertex, or null if the index is not in use
+     */
+    @SuppressWarnings("unchecked")
+    public V vertexAt(int index) {
+        if (index < 0 || index >= vertices.length) {
+            return null;
+        }
+        return (V) vertices[index];
+    }
+
+    /**
+     * Reports whether a vertex is in the index.
+     *
+     * @param vertex the vertex to search for
+     * @return true if the vertex is found, or otherwise false
+     */
+    public boolean containsVertex(Object vertex) {
+        return indexOf(vertex) != -1;
+    }
+
+    /**
+     * Reports whether an index is in use.
+     *
+     * @param index the index to search for
+     * @return true if the index is in use, or otherwise false
+     */
+    public boolean containsIndex(int index) {
+        return vertexAt(index) != null;
+    }
+
+    /**
+     * Removes a vertex and its index.
+     *
+     * @param vertex the vertex to search for and remove
+     * @return the index the vertex had, or -1 if the vertex was not in the index
+     */
+    public int remove(Object vertex) {
+        if (vertex == null) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        int slot = slot(vertex);
+        while (keys[slot] != null && !keys[slot].equals(vertex)) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == null) {
+            return -1;
+        }
+        int index = values[slot];
+        vertices[index] = null;
+        size--;
+
+        // shift later entries of the probe run back so lookups never stop early
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = null;
+        return index;
+    }
+
+    private void rehash(int tableSize) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new Object[tableSize];
+        values = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Removes all vertices from the index.
+     */
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(vertices, null);
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        boolean first = true;
+        for (int i = 0; i < vertices.length; i++) {
+            if (vertices[i] != null) {
+                if (!first) {
+                    builder.append(", ");
+                }
+                first = false;
+                builder.append(vertices[i]).append(" - ").append(i);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package structures;
+
+/**
+ * Square storage for edge weights, addressed by (row, column). Whether a cell
+ * holds an edge is tracked separately by the graph, which only reads cells that
+ * it has written.
+ *
+ * Weights are non-negative and passed as longs; each implementation stores them
+ * in whatever width it uses and reports the largest weight it can hold through
+ * {@link #maxWeight()}.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public interface WeightMatrix {
+
+    /**
+     * Returns the number of rows/columns in the matrix.
+     *
+     * @return the matrix capacity
+     */
+    int capacity();
+
+    /**
+     * Returns the largest capacity this matrix can be resized to.
+     *
+     * @return the maximum number of rows/columns
+     */
+    int maxCapacity();
+
+    /**
+     * Returns the weight stored in a cell.
+     *
+     * @param row the row of the cell
+     * @param column the column of the cell
+     * @return the stored weight; the result for a cell with no weight is unspecified
+     */
+    long get(int row, int column);
+
+    /**
+     * Stores a weight in a cell.
+     *
+     * @param row the row of the cell
+     * @param column the column of the cell
+     * @param weight the weight to store, at most {@link #maxWeight()}
+     */
+    void set(int row, int column, long weight);
+
+    /**
+     * Returns the largest weight a cell can hold.
+     *
+     * @return the maximum weight
+     */
+    long maxWeight();
+
+    /**
+     * Returns a matrix with the same cells that can also hold the given weight. The
+     * default implementation cannot widen and throws an IllegalArgumentException.
+     *
+     * @param weight a weight larger than {@link #maxWeight()}
+     * @return a wider copy of this matrix
+     */
+    default WeightMatrix widen(long weight) {
+        throw new IllegalArgumentException("Weight " + weight + " exceeds the maximum of " + maxWeight());
+    }
+
+    /**
+     * Forgets the weight stored in a cell.
+     *
+     * @param row the row of the cell
+     * @param column the column of the cell
+     */
+    void remove(int row, int column);
+
+    /**
+     * Grows or shrinks the matrix, keeping the cells that still fit.
+     *
+     * @param newCapacity the new number of rows/columns
+     */
+    void resize(int newCapacity);
+
+    /**
+     * Forgets the weight stored in every cell.
+     */
+    void clear();
+}
@@ -0,0 +1,157 @@
+package tests;
+
+import graphs.AdaptiveDirectedGraph;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that the adaptive graph keeps every edge while it switches
+ * between its sparse and dense representations.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class AdaptiveDirectedGraphTest
+{
+    private static final int VERTEX_COUNT = 40;
+    private AdaptiveDirectedGraph<Integer> graph;
+
+    /**
+     * Creates a new graph with all test vertices for each test.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new AdaptiveDirectedGraph<>();
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            graph.addVertex(i);
+        }
+    }
+
+    private void verifyComplete(int rows)
+    {
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            for (int j = 0; j < VERTEX_COUNT; j++)
+            {
+                boolean expected = i < rows;
+                Assert.assertEquals("Edge existence is incorrect for " + i + " - " + j,
+                        expected, graph.containsEdge(i, j));
+                Assert.assertEquals("Edge weight is incorrect for " + i + " - " + j,
+                        expected ? i + j : -1, graph.edgeWeight(i, j));
+            }
+        }
+        Assert.assertEquals("Edge size is incorrect", rows * VERTEX_COUNT, graph.edgeSize());
+        Assert.assertEquals("Edge set size is incorrect", rows * VERTEX_COUNT, graph.edges().size());
+    }
+
+    /**
+     * Fills the graph until it becomes dense, then empties it until it
+     * becomes sparse again, checking every edge along the way.
+     */
+    @Test
+    public void switchRepresentationTest()
+    {
+        Assert.assertFalse("Empty graph should be sparse", graph.isDense());
+
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            for (int j = 0; j < VERTEX_COUNT; j++)
+            {
+                Assert.assertTrue("Graph does not recognize adding a valid edge",
+                        graph.addEdge(i, j, i + j));
+            }
+            verifyComplete(i + 1);
+        }
+        Assert.assertTrue("Complete graph should be dense", graph.isDense());
+
+        for (int i = VERTEX_COUNT - 1; i >= 0; i--)
+        {
+            for (int j = 0; j < VERTEX_COUNT; j++)
+            {
+                Assert.assertTrue("Edge reported as not removed, when it is in the graph",
+                        graph.removeEdge(i, j));
+            }
+            verifyComplete(i);
+        }
+        Assert.assertFalse("Empty graph should be sparse", graph.isDense());
+        Assert.assertEquals("Vertex size is incorrect", VERTEX_COUNT, graph.vertexSize());
+    }
+
+    private void verifyReusedRows()
+    {
+        Assert.assertFalse("Removed vertex should be gone", graph.containsVertex(2));
+        Assert.assertEquals("Edge weight is incorrect for a reused index", 5, graph.edgeWeight(100, 0));
+        Assert.assertEquals("Edge weight is incorrect into a reused index", 7, graph.edgeWeight(3, 100));
+        Assert.assertEquals("Edge weight is incorrect for a moved row", 4, graph.edgeWeight(1, 3));
+        Assert.assertEquals("Edge weight is incorrect for an unmoved row", 3 + 39, graph.edgeWeight(3, 39));
+        Assert.assertFalse("Edge into a removed vertex should be gone", graph.containsEdge(0, 2));
+        Assert.assertEquals("Edge size is incorrect", 119, graph.edgeSize());
+        Assert.assertEquals("Edge set size is incorrect", 119, graph.edges().size());
+    }
+
+    /**
+     * Adds and removes vertices while a switch is in progress, so that removed
+     * indices are reused on both sides of the rows already moved.
+     */
+    @Test
+    public void vertexChangesDuringSwitchTest()
+    {
+        //four full rows reach the dense threshold on the last edge
+        for (int i = 0; i < 4; i++)
+        {
+            for (int j = 0; j < VERTEX_COUNT; j++)
+            {
+                graph.addEdge(i, j, i + j);
+            }
+        }
+        Assert.assertTrue("Graph should be moving to a matrix", graph.isDense());
+
+        graph.removeVertex(2);
+        graph.addVertex(100);
+        graph.addEdge(100, 0, 5);
+        graph.addEdge(3, 100, 7);
+        verifyReusedRows();
+
+        for (int i = 101; i < 110; i++)
+        {
+            graph.addVertex(i);
+        }
+        graph.removeVertex(101);
+        verifyReusedRows();
+        Assert.assertEquals("Vertex size is incorrect", VERTEX_COUNT + 8, graph.vertexSize());
+        Assert.assertTrue("Graph should be dense", graph.isDense());
+    }
+
+    /**
+     * Verifies that a null vertex is rejected without being added to either
+     * representation.
+     */
+    @Test
+    public void nullVertexTest()
+    {
+        try
+        {
+            graph.addVertex(null);
+            Assert.fail("Null vertex should be rejected");
+        }
+        catch (NullPointerException ex)
+        {
+            assert true; //do nothing
+        }
+        Assert.assertFalse("Null vertex should not be found", graph.containsVertex(null));
+        Assert.assertEquals("Vertex size is incorrect", VERTEX_COUNT, graph.vertexSize());
+        Assert.assertFalse("Vertex set should not hold null", graph.vertices().contains(null));
+    }
+
+    /**
+     * Verifies that thresholds in the wrong order are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidThresholdTest()
+    {
+        new AdaptiveDirectedGraph<Integer>(0.1, 0.2);
+    }
+}
@@ -0,0 +1,146 @@
+package tests;
+
+import graphs.CsrGraph;
+import graphs.DirectedGraph;
+import graphs.Edge;
+import java.util.HashSet;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies that CSR snapshots answer the same read queries as the graph
+ * they were built from.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class CsrGraphTest
+{
+    private static final int VERTEX_COUNT = 50;
+    private DirectedGraph<String> graph;
+
+    /**
+     * Creates a graph where each vertex i links to i + 1 and i + 7.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            graph.addVertex("v" + i);
+        }
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            graph.addEdge("v" + i, "v" + ((i + 1) % VERTEX_COUNT), i);
+            graph.addEdge("v" + i, "v" + ((i + 7) % VERTEX_COUNT), i * 2);
+        }
+    }
+
+    /**
+     * Verifies sizes, edge existence and weights in the snapshot.
+     */
+    @Test
+    public void snapshotMatchesGraphTest()
+    {
+        CsrGraph<String> csr = graph.toCsr();
+
+        Assert.assertEquals("Vertex size is incorrect", graph.vertexSize(), csr.vertexSize());
+        Assert.assertEquals("Edge size is incorrect", graph.edgeSize(), csr.edgeSize());
+        Assert.assertEquals("Edge sets differ", graph.edges(), csr.edges());
+        Assert.assertEquals("Vertex sets differ", graph.vertices(), csr.vertices());
+
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            for (int j = 0; j < VERTEX_COUNT; j++)
+            {
+                String source = "v" + i;
+                String destination = "v" + j;
+                Assert.assertEquals("Edge existence differs for " + source + " - " + destination,
+                        graph.containsEdge(source, destination), csr.containsEdge(source, destination));
+                Assert.assertEquals("Edge weight differs for " + source + " - " + destination,
+                        graph.edgeWeight(source, destination), csr.edgeWeight(source, destination));
+            }
+            Assert.assertEquals("Out-degree is incorrect", 2, csr.outDegree("v" + i));
+        }
+        Assert.assertEquals("Missing vertex should report -1", -1, csr.edgeWeight("v0", "x"));
+    }
+
+    /**
+     * Verifies that the snapshot does not change with the graph and rejects
+     * mutation.
+     */
+    @Test
+    public void snapshotIsImmutableTest()
+    {
+        CsrGraph<String> csr = graph.toCsr();
+        graph.removeEdge("v0", "v1");
+
+        Assert.assertTrue("Snapshot changed with the graph", csr.containsEdge("v0", "v1"));
+        try
+        {
+            csr.addEdge("v1", "v0", 1);
+            Assert.fail("Snapshot accepted a new edge");
+        }
+        catch (UnsupportedOperationException ex)
+        {
+            assert true; //do nothing
+        }
+    }
+
+    /**
+     * Verifies that row traversal visits each out-edge once, in index order,
+     * with the same destinations and weights as the graph.
+     */
+    @Test
+    public void outEdgeTraversalTest()
+    {
+        graph.removeVertex("v3");
+        CsrGraph<String> csr = graph.toCsr();
+
+        for (int i = 0; i < csr.vertexSize(); i++)
+        {
+            String source = csr.vertexAt(i);
+            Set<String> expected = neighbors(source);
+
+            Set<String> iterated = new HashSet<>();
+            int previous = -1;
+            PrimitiveIterator.OfInt neighbors = csr.outNeighbors(source);
+            while (neighbors.hasNext())
+            {
+                int index = neighbors.nextInt();
+                Assert.assertTrue("Neighbors should be in ascending order", index > previous);
+                previous = index;
+                iterated.add(csr.vertexAt(index));
+            }
+            Assert.assertEquals("outNeighbors() is incorrect for " + source, expected, iterated);
+
+            Set<String> visited = new HashSet<>();
+            Assert.assertTrue("Vertex should be found", csr.forEachOutEdge(source, (destination, weight) ->
+            {
+                String target = csr.vertexAt(destination);
+                visited.add(target);
+                Assert.assertEquals("Weight is incorrect", graph.edgeWeight(source, target), weight);
+            }));
+            Assert.assertEquals("forEachOutEdge() is incorrect for " + source, expected, visited);
+        }
+
+        Assert.assertNull("Index past the last vertex should have no vertex", csr.vertexAt(csr.vertexSize()));
+        Assert.assertFalse("Missing vertex should have no neighbors", csr.outNeighbors("v3").hasNext());
+        Assert.assertFalse("Missing vertex should not be found",
+                csr.forEachOutEdge("v3", (destination, weight) -> Assert.fail("Missing vertex has edges")));
+    }
+
+    private Set<String> neighbors(String source)
+    {
+        Set<String> set = new HashSet<>();
+        for (Edge<String> edge : graph.outEdges(source))
+        {
+            set.add(edge.getDestination());
+        }
+        return set;
+    }
+}
@@ -0,0 +1,581 @@
+package tests;
+
+import graphs.DirectedGraph;
+import graphs.Edge;
+import graphs.EdgeBatch;
+import graphs.LoadSummary;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies the DirectedGraph operations that go beyond the IGraph<V>
+ * interface.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class DirectedGraphTest
+{
+    private static String[] testVerts = {"A", "B", "C", "D", "E", "F", "G", "H",
+                                  "I", "J", "K", "L"};
+    private DirectedGraph<String> graph;
+
+    /**
+     * Creates a new graph with every test vertex and an edge from each
+     * vertex to the next, weighted by the source's position.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedGraph<>();
+        for (String letter : testVerts)
+        {
+            graph.addVertex(letter);
+        }
+        for (int i = 0; i < testVerts.length - 1; i++)
+        {
+            graph.addEdge(testVerts[i], testVerts[i + 1], i);
+        }
+    }
+
+    /**
+     * Verifies that removing a vertex drops its edges and that its slot is
+     * reused without disturbing other vertices.
+     */
+    @Test
+    public void removedSlotReuseTest()
+    {
+        graph.addEdge("C", "C", 99);
+        Assert.assertTrue("Vertex reported as not removed, when it is in the graph",
+                graph.removeVertex("C"));
+        Assert.assertEquals("Edges into and out of a removed vertex should be dropped",
+                testVerts.length - 3, graph.edgeSize());
+        Assert.assertEquals("Edge set size is incorrect after removing a vertex",
+                testVerts.length - 3, graph.edges().size());
+
+        graph.addVertex("M");
+        Assert.assertFalse("New vertex inherited an edge from the removed vertex",
+                graph.containsEdge("B", "M"));
+        Assert.assertFalse("New vertex inherited an edge from the removed vertex",
+                graph.containsEdge("M", "D"));
+        Assert.assertFalse("New vertex inherited an edge from the removed vertex",
+                graph.containsEdge("M", "M"));
+        Assert.assertTrue("Vertex lost after slot reuse", graph.containsVertex("L"));
+        Assert.assertEquals("Edge weight changed after slot reuse", 10, graph.edgeWeight("K", "L"));
+        Assert.assertEquals("Vertex size is incorrect", testVerts.length, graph.vertexSize());
+        Assert.assertEquals("Vertex set size is incorrect", testVerts.length, graph.vertices().size());
+
+        int freed = graph.vertexId("D");
+        graph.removeVertex("D");
+        try
+        {
+            graph.addVertex(null);
+            Assert.fail("Null vertex should be rejected");
+        }
+        catch (NullPointerException ex)
+        {
+            assert true; //do nothing
+        }
+        graph.addVertex("N");
+        Assert.assertEquals("Rejected null vertex should not take the freed index", freed, graph.vertexId("N"));
+    }
+
+    /**
+     * Verifies that compact() keeps every vertex and edge after removals.
+     */
+    @Test
+    public void compactTest()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            graph.addVertex("x" + i);
+            graph.addEdge("x" + i, "A", i);
+        }
+        for (int i = 0; i < 100; i++)
+        {
+            graph.removeVertex("x" + i);
+        }
+        graph.removeVertex("B");
+
+        graph.compact();
+
+        Assert.assertEquals("Vertex size is incorrect after compacting",
+                testVerts.length - 1, graph.vertexSize());
+        Assert.assertEquals("Edge size is incorrect after compacting",
+                testVerts.length - 3, graph.edgeSize());
+        for (int i = 2; i < testVerts.length - 1; i++)
+        {
+            Assert.assertEquals("Edge weight is incorrect after compacting",
+                    i, graph.edgeWeight(testVerts[i], testVerts[i + 1]));
+        }
+        Assert.assertFalse("Removed vertex found after compacting", graph.containsVertex("B"));
+
+        graph.addVertex("B");
+        graph.addEdge("A", "B", 5);
+        Assert.assertEquals("Graph is unusable after compacting", 5, graph.edgeWeight("A", "B"));
+    }
+
+    /**
+     * Verifies pre-sizing, the growth policies and trimming.
+     */
+    @Test
+    public void capacityTest()
+    {
+        DirectedGraph<Integer> sized = new DirectedGraph<>(500);
+        Assert.assertEquals("Initial capacity is incorrect", 500, sized.capacity());
+
+        sized.ensureCapacity(100);
+        Assert.assertEquals("ensureCapacity() should never shrink", 500, sized.capacity());
+
+        sized.setGrowthStep(7);
+        for (int i = 0; i < 501; i++)
+        {
+            sized.addVertex(i);
+        }
+        Assert.assertEquals("Fixed growth step was not used", 507, sized.capacity());
+
+        sized.addEdge(3, 4, 34);
+        for (int i = 100; i < 501; i++)
+        {
+            sized.removeVertex(i);
+        }
+        sized.trimToSize();
+        Assert.assertEquals("trimToSize() should shrink to the highest index in use", 100, sized.capacity());
+        Assert.assertEquals("Edge weight changed after trimming", 34, sized.edgeWeight(3, 4));
+
+        sized.addVertex(1000);
+        Assert.assertTrue("Vertex lost after growing a trimmed graph", sized.containsVertex(1000));
+        Assert.assertEquals("Vertex size is incorrect", 101, sized.vertexSize());
+    }
+
+    /**
+     * Verifies that predecessor queries agree with and without the reverse
+     * index, through edge and vertex removal and compaction.
+     */
+    @Test
+    public void reverseIndexTest()
+    {
+        for (int i = 1; i < testVerts.length; i++)
+        {
+            graph.addEdge(testVerts[i], "A", i);
+        }
+        Set<String> expected = new HashSet<>();
+        for (int i = 1; i < testVerts.length; i++)
+        {
+            expected.add(testVerts[i]);
+        }
+        Assert.assertEquals("In-neighbors are incorrect without the index", expected, graph.inNeighbors("A"));
+
+        graph.setReverseIndex(true);
+        Assert.assertEquals("In-neighbors are incorrect with the index", expected, graph.inNeighbors("A"));
+        Assert.assertEquals("In-degree is incorrect", testVerts.length - 1, graph.inDegree("A"));
+        Assert.assertEquals("In-degree is incorrect", 1, graph.inDegree("C"));
+        Assert.assertEquals("Missing vertex should report -1", -1, graph.inDegree("Z"));
+
+        graph.removeEdge("B", "A");
+        expected.remove("B");
+        Assert.assertEquals("In-neighbors are incorrect after removing an edge", expected, graph.inNeighbors("A"));
+
+        graph.removeVertex("C");
+        expected.remove("C");
+        Assert.assertEquals("In-neighbors are incorrect after removing a vertex", expected, graph.inNeighbors("A"));
+        Assert.assertEquals("Edges into a removed vertex should be dropped",
+                2 * (testVerts.length - 1) - 4, graph.edgeSize());
+
+        graph.addVertex("M");
+        graph.addEdge("M", "A", 1);
+        expected.add("M");
+        graph.compact();
+        Assert.assertEquals("In-neighbors are incorrect after compact", expected, graph.inNeighbors("A"));
+        Assert.assertEquals("In-degree is incorrect after compact", 1, graph.inDegree("E"));
+
+        graph.setReverseIndex(false);
+        Assert.assertEquals("In-neighbors are incorrect after dropping the index", expected, graph.inNeighbors("A"));
+    }
+
+    /**
+     * Verifies that the columnar export lists the same edges as edges().
+     */
+    @Test
+    public void exportEdgesTest()
+    {
+        graph.removeVertex("E");
+        graph.addEdge("L", "A", 77);
+        EdgeBatch<String> batch = graph.exportEdges();
+
+        Assert.assertEquals("Batch size is incorrect", graph.edgeSize(), batch.size());
+        Set<Edge<String>> exported = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++)
+        {
+            exported.add(batch.edge(i));
+            Assert.assertEquals("Exported weight is incorrect",
+                    graph.edgeWeight(batch.vertex(batch.sources()[i]), batch.vertex(batch.destinations()[i])),
+                    batch.weights()[i]);
+        }
+        Assert.assertEquals("Exported edges are incorrect", graph.edges(), exported);
+        Assert.assertNull("Removed vertex should have no id", batch.vertex(4));
+    }
+
+    /**
+     * Verifies that neighbor iteration visits exactly the out-edges of a
+     * vertex.
+     */
+    @Test
+    public void neighborIterationTest()
+    {
+        graph.addEdge("C", "A", 5);
+        graph.addEdge("C", "L", 6);
+        Set<String> expected = new HashSet<>();
+        expected.add("A");
+        expected.add("D");
+        expected.add("L");
+
+        Set<String> iterated = new HashSet<>();
+        PrimitiveIterator.OfInt neighbors = graph.outNeighbors("C");
+        while (neighbors.hasNext())
+        {
+            iterated.add(graph.vertexAt(neighbors.nextInt()));
+        }
+        Assert.assertEquals("outNeighbors() is incorrect", expected, iterated);
+
+        Set<Edge<String>> visited = new HashSet<>();
+        Assert.assertTrue("Vertex should be found",
+                graph.forEachOutEdge("C", (destination, weight) ->
+                        visited.add(new Edge<>("C", graph.vertexAt(destination), weight))));
+        Assert.assertEquals("forEachOutEdge() is incorrect", new HashSet<>(graph.outEdges("C")), visited);
+
+        Assert.assertFalse("Missing vertex should have no neighbors", graph.outNeighbors("Z").hasNext());
+        Assert.assertFalse("Missing vertex should be reported",
+                graph.forEachOutEdge("Z", (destination, weight) -> Assert.fail("Missing vertex has edges")));
+        Assert.assertFalse("Sink should have no neighbors", graph.outNeighbors("L").hasNext());
+    }
+
+    /**
+     * Verifies that forEachEdge() visits every edge exactly once.
+     */
+    @Test
+    public void forEachEdgeTest()
+    {
+        graph.removeVertex("F");
+        graph.addEdge("L", "A", 42);
+        Set<Edge<String>> visited = new HashSet<>();
+        int[] count = new int[1];
+        graph.forEachEdge((source, destination, weight) ->
+        {
+            visited.add(new Edge<>(source, destination, weight));
+            Assert.assertEquals("Visited weight is incorrect", graph.edgeWeight(source, destination), weight);
+            count[0]++;
+        });
+        Assert.assertEquals("Edge visited more than once", graph.edgeSize(), count[0]);
+        Assert.assertEquals("Visited edges are incorrect", graph.edges(), visited);
+    }
+
+    /**
+     * Verifies that the sequential and parallel streams see every vertex and
+     * edge exactly once.
+     */
+    @Test
+    public void streamTest()
+    {
+        DirectedGraph<Integer> large = new DirectedGraph<>(500);
+        for (int i = 0; i < 500; i++)
+        {
+            large.addVertex(i);
+        }
+        for (int i = 0; i < 500; i++)
+        {
+            for (int j = i % 7; j < 500; j += 7)
+            {
+                large.addEdge(i, j, i + j);
+            }
+        }
+        large.removeVertex(250);
+        long[] totalWeight = new long[1];
+        large.forEachEdge((source, destination, weight) -> totalWeight[0] += weight);
+
+        Assert.assertEquals("Vertex stream is incorrect", large.vertices(),
+                large.vertexStream().parallel().collect(Collectors.toSet()));
+        Assert.assertEquals("Sequential edge stream is incorrect", large.edges(),
+                large.edgeStream().collect(Collectors.toSet()));
+        Assert.assertEquals("Parallel edge stream is incorrect", large.edgeSize(),
+                large.edgeStream().parallel().count());
+        Assert.assertEquals("Parallel edge stream is incorrect", large.edges(),
+                large.edgeStream().parallel().collect(Collectors.toSet()));
+        Assert.assertEquals("Parallel weight stream is incorrect", totalWeight[0],
+                large.edgeWeightStream().parallel().asLongStream().sum());
+        Assert.assertEquals("Empty graph should stream no edges", 0,
+                new DirectedGraph<String>().edgeStream().parallel().count());
+    }
+
+    /**
+     * Verifies that the live views track the graph without copying it and
+     * fail fast when the graph changes during iteration.
+     */
+    @Test
+    public void liveViewTest()
+    {
+        Set<String> vertices = graph.vertexView();
+        Set<Edge<String>> edges = graph.edgeView();
+        Assert.assertEquals("Vertex view is incorrect", graph.vertices(), vertices);
+        Assert.assertEquals("Edge view is incorrect", graph.edges(), edges);
+
+        graph.removeVertex("B");
+        graph.addEdge("L", "A", 3);
+        Assert.assertEquals("Vertex view size did not follow the graph", testVerts.length - 1, vertices.size());
+        Assert.assertFalse("Vertex view still contains a removed vertex", vertices.contains("B"));
+        Assert.assertTrue("Edge view is missing a new edge", edges.contains(new Edge<>("L", "A", 0)));
+        Assert.assertFalse("Edge view still contains a removed edge", edges.contains(new Edge<>("A", "B", 0)));
+        Assert.assertEquals("Vertex view is incorrect after changes", graph.vertices(), vertices);
+        Assert.assertEquals("Edge view is incorrect after changes", graph.edges(), edges);
+
+        Iterator<Edge<String>> iterator = edges.iterator();
+        iterator.next();
+        graph.removeEdge("L", "A");
+        try
+        {
+            iterator.next();
+            Assert.fail("Iterator should fail fast after the graph changed");
+        }
+        catch (ConcurrentModificationException ex)
+        {
+            assert true; //do nothing
+        }
+        try
+        {
+            vertices.add("Z");
+            Assert.fail("Views should be read-only");
+        }
+        catch (UnsupportedOperationException ex)
+        {
+            assert true; //do nothing
+        }
+    }
+
+    /**
+     * Verifies that a bulk load adds the same edges as one call per edge and
+     * reports the edges it skipped.
+     */
+    @Test
+    public void bulkLoadTest()
+    {
+        DirectedGraph<String> loaded = new DirectedGraph<>(2);
+        loaded.addVertex("A");
+        loaded.addVertex("B");
+        loaded.addEdge("A", "B", 0);
+
+        //"A" and "B" are already in the graph and "X" appears twice
+        List<String> vertices = Arrays.asList("A", "B", "X", "Y", "Z", "X");
+        int[] sources      = {0, 1, 2, 3, 4, 5, 0, 9, 1, 2};
+        int[] destinations = {1, 2, 3, 4, 0, 3, 4, 0, 2, 2};
+        int[] weights      = {5, 6, 7, 8, 9, 3, 4, 1, 2, -1};
+        LoadSummary summary = loaded.addAll(vertices, sources, destinations, weights);
+
+        Assert.assertEquals("Added vertex count is incorrect", 3, summary.verticesAdded());
+        Assert.assertEquals("Added edge count is incorrect", 5, summary.edgesAdded());
+        Assert.assertArrayEquals("Duplicate edges are incorrect", new int[] {0, 5, 8}, summary.duplicateEdges());
+        Assert.assertArrayEquals("Invalid edges are incorrect", new int[] {7, 9}, summary.invalidEdges());
+
+        DirectedGraph<String> expected = new DirectedGraph<>();
+        for (String vertex : vertices)
+        {
+            expected.addVertex(vertex);
+        }
+        expected.addEdge("A", "B", 0);
+        for (int k = 0; k < sources.length; k++)
+        {
+            if (sources[k] < vertices.size() && weights[k] >= 0)
+            {
+                expected.addEdge(vertices.get(sources[k]), vertices.get(destinations[k]), weights[k]);
+            }
+        }
+        Assert.assertEquals("Vertex size is incorrect", expected.vertexSize(), loaded.vertexSize());
+        Assert.assertEquals("Edge size is incorrect", expected.edgeSize(), loaded.edgeSize());
+        for (Edge<String> edge : expected.edges())
+        {
+            Assert.assertEquals("Loaded weight is incorrect for " + edge, edge.getWeight(),
+                    loaded.edgeWeight(edge.getSource(), edge.getDestination()));
+        }
+        //doubling from 2 would reach 8, sizing once for the new vertices stays below it
+        Assert.assertTrue("Capacity should be sized once to fit", loaded.capacity() < 8);
+
+        try
+        {
+            loaded.addAll(Arrays.asList("W", null), new int[] {0}, new int[] {1}, new int[] {1});
+            Assert.fail("Null vertex should be rejected");
+        }
+        catch (NullPointerException ex)
+        {
+            assert true; //do nothing
+        }
+        Assert.assertFalse("Rejected load should not add any vertex", loaded.containsVertex("W"));
+        Assert.assertEquals("Vertex size is incorrect after a rejected load",
+                loaded.vertices().size(), loaded.vertexSize());
+    }
+
+    /**
+     * Verifies updating edge weights in place.
+     */
+    @Test
+    public void weightUpdateTest()
+    {
+        Assert.assertEquals("Upsert should report the previous weight", 2, graph.upsertEdge("C", "D", 20));
+        Assert.assertEquals("Upserted weight is incorrect", 20, graph.edgeWeight("C", "D"));
+        Assert.assertEquals("Upsert of a new edge should report -1", -1, graph.upsertEdge("D", "C", 4));
+        Assert.assertEquals("Edge size is incorrect after upserts", testVerts.length, graph.edgeSize());
+
+        for (int i = 0; i < 5; i++)
+        {
+            graph.mergeWeight("A", "L", 1, Integer::sum);
+        }
+        Assert.assertEquals("Merged weight is incorrect", 5, graph.edgeWeight("A", "L"));
+        Assert.assertEquals("Merge should keep the larger weight", 20, graph.mergeWeight("C", "D", 7, Math::max));
+
+        Assert.assertEquals("Computed weight is incorrect", 40, graph.computeWeight("C", "D", weight -> weight * 2));
+        Assert.assertEquals("Computing a negative weight should remove the edge",
+                -1, graph.computeWeight("C", "D", weight -> -1));
+        Assert.assertFalse("Edge should be removed", graph.containsEdge("C", "D"));
+        Assert.assertEquals("Absent edge should be computed from -1",
+                0, graph.computeWeight("C", "D", weight -> weight + 1));
+        Assert.assertEquals("Edge size is incorrect after updates", testVerts.length + 1, graph.edgeSize());
+
+        try
+        {
+            graph.upsertEdge("A", "Z", 1);
+            Assert.fail("Missing vertex should be rejected");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assert true; //do nothing
+        }
+
+        graph.upsertEdge("C", "D", Integer.MAX_VALUE);
+        try
+        {
+            graph.mergeWeight("C", "D", 1, Integer::sum);
+            Assert.fail("Overflowed weight should be rejected");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assert true; //do nothing
+        }
+        try
+        {
+            graph.mergeWeight("C", "D", 1, Math::addExact);
+            Assert.fail("Overflow should be reported by the merger");
+        }
+        catch (ArithmeticException ex)
+        {
+            assert true; //do nothing
+        }
+        Assert.assertEquals("Rejected merge should leave the weight", Integer.MAX_VALUE, graph.edgeWeight("C", "D"));
+        Assert.assertEquals("Only NO_EDGE should remove the edge",
+                DirectedGraph.NO_EDGE, graph.computeWeight("C", "D", weight -> DirectedGraph.NO_EDGE));
+        Assert.assertFalse("Edge should be removed", graph.containsEdge("C", "D"));
+    }
+
+    private void verifyDegrees()
+    {
+        for (String vertex : graph.vertices())
+        {
+            Assert.assertEquals("Out-degree is incorrect for " + vertex,
+                    graph.outEdges(vertex).size(), graph.outDegree(vertex));
+            Assert.assertEquals("In-degree is incorrect for " + vertex,
+                    graph.inNeighbors(vertex).size(), graph.inDegree(vertex));
+        }
+    }
+
+    /**
+     * Verifies that the degree counters follow every kind of edge change, and
+     * the histograms built from them.
+     */
+    @Test
+    public void degreeCounterTest()
+    {
+        graph.addEdge("A", "C", 1);
+        graph.addEdge("A", "D", 1);
+        graph.addEdge("A", "E", 1);
+        Assert.assertEquals("Out-degree is incorrect", 4, graph.outDegree("A"));
+        Assert.assertEquals("In-degree is incorrect", 0, graph.inDegree("A"));
+        Assert.assertEquals("Missing vertex should report -1", -1, graph.outDegree("Z"));
+        Assert.assertArrayEquals("Out-degree histogram is incorrect",
+                new int[] {1, 10, 0, 0, 1}, graph.degreeHistogram());
+        Assert.assertArrayEquals("In-degree histogram is incorrect",
+                new int[] {1, 8, 3}, graph.inDegreeHistogram());
+
+        graph.removeVertex("D");
+        graph.removeEdge("A", "C");
+        graph.computeWeight("A", "E", weight -> -1);
+        graph.upsertEdge("L", "A", 1);
+        graph.addVertex("M");
+        graph.addAll(Arrays.asList("M", "N"), new int[] {0, 0}, new int[] {1, 1}, new int[] {1, 2});
+        verifyDegrees();
+        Assert.assertEquals("Out-degree is incorrect after removals", 1, graph.outDegree("A"));
+        Assert.assertEquals("Reused slot should start without degree", 1, graph.outDegree("M"));
+
+        graph.compact();
+        verifyDegrees();
+        Assert.assertEquals("In-degree is incorrect after compact", 1, graph.inDegree("N"));
+        Assert.assertEquals("Histogram should count every vertex", graph.vertexSize(),
+                Arrays.stream(graph.degreeHistogram()).sum());
+
+        graph.clear();
+        Assert.assertArrayEquals("Empty graph histogram is incorrect", new int[] {0}, graph.degreeHistogram());
+    }
+
+    /**
+     * Verifies the id-addressed edge operations and how ids behave across
+     * removal and compaction.
+     */
+    @Test
+    public void vertexIdTest()
+    {
+        int a = graph.vertexId("A");
+        int b = graph.vertexId("B");
+        int k = graph.vertexId("K");
+        Assert.assertEquals("Missing vertex should report -1", -1, graph.vertexId("Z"));
+        Assert.assertEquals("Id should lead back to its vertex", "K", graph.vertexAt(k));
+        Assert.assertTrue("Edge should be found by id", graph.containsEdgeById(a, b));
+        Assert.assertEquals("Edge weight by id is incorrect", 0, graph.edgeWeightById(a, b));
+        Assert.assertEquals("Missing edge should report -1", -1, graph.edgeWeightById(b, a));
+        Assert.assertFalse("Invalid id should not be found", graph.containsEdgeById(a, -1));
+        Assert.assertFalse("Out of range id should not be found", graph.containsEdgeById(a, 1000));
+
+        Assert.assertTrue("Edge should be added by id", graph.addEdgeById(k, a, 7));
+        Assert.assertFalse("Duplicate edge should not be added by id", graph.addEdgeById(k, a, 8));
+        Assert.assertEquals("Edge added by id is incorrect", 7, graph.edgeWeight("K", "A"));
+        Assert.assertTrue("Edge should be removed by id", graph.removeEdgeById(a, b));
+        Assert.assertFalse("Edge should not be removed twice", graph.removeEdgeById(a, b));
+        Assert.assertEquals("Edge size is incorrect", testVerts.length - 1, graph.edgeSize());
+
+        graph.removeVertex("B");
+        Assert.assertEquals("Ids of other vertices should be stable", k, graph.vertexId("K"));
+        Assert.assertFalse("Edge to a removed id should not be added", graph.addEdgeById(a, b, 1));
+        graph.addVertex("M");
+        Assert.assertEquals("Removed id should be reused", b, graph.vertexId("M"));
+
+        graph.removeVertex("C");
+        graph.compact();
+        Assert.assertEquals("Edge should survive compact", 7,
+                graph.edgeWeightById(graph.vertexId("K"), graph.vertexId("A")));
+        Assert.assertEquals("Compacted ids should be dense", graph.vertexSize() - 1, graph.vertexId("L"));
+
+        try
+        {
+            graph.addEdgeById(a, a, -1);
+            Assert.fail("Negative weight should be rejected");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assert true; //do nothing
+        }
+    }
+}
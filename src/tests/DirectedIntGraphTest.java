@@ -0,0 +1,130 @@
+package tests;
+
+import graphs.DirectedIntGraph;
+import graphs.Edge;
+import graphs.IGraph;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies the int-keyed graph and its IGraph view.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class DirectedIntGraphTest
+{
+    private static final int VERTEX_COUNT = 100;
+    private DirectedIntGraph graph;
+
+    /**
+     * Creates a new graph with ids 0 to 99 and an edge from each id to the
+     * next, weighted by the source id.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new DirectedIntGraph();
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            Assert.assertTrue("Vertex should be added", graph.addVertex(i));
+        }
+        for (int i = 0; i < VERTEX_COUNT - 1; i++)
+        {
+            Assert.assertTrue("Edge should be added", graph.addEdge(i, i + 1, i));
+        }
+    }
+
+    /**
+     * Verifies the primitive operations, including growth past the initial
+     * capacity and removal.
+     */
+    @Test
+    public void primitiveOperationsTest()
+    {
+        Assert.assertFalse("Duplicate vertex should not be added", graph.addVertex(5));
+        Assert.assertFalse("Duplicate edge should not be added", graph.addEdge(5, 6, 1));
+        Assert.assertFalse("Edge to a missing vertex should not be added", graph.addEdge(5, 500, 1));
+        Assert.assertEquals("Vertex size is incorrect", VERTEX_COUNT, graph.vertexSize());
+        Assert.assertEquals("Edge size is incorrect", VERTEX_COUNT - 1, graph.edgeSize());
+        Assert.assertEquals("Edge weight is incorrect", 42, graph.edgeWeight(42, 43));
+        Assert.assertEquals("Missing edge should report -1", -1, graph.edgeWeight(43, 42));
+        Assert.assertEquals("Missing vertex should report -1", -1, graph.edgeWeight(-1, 0));
+
+        graph.addEdge(50, 50, 7);
+        Assert.assertTrue("Vertex should be removed", graph.removeVertex(50));
+        Assert.assertFalse("Removed vertex should be gone", graph.containsVertex(50));
+        Assert.assertEquals("Edges of a removed vertex should be dropped", VERTEX_COUNT - 3, graph.edgeSize());
+        Assert.assertEquals("Vertex ids are incorrect", VERTEX_COUNT - 1, graph.vertices().length);
+
+        graph.addVertex(50);
+        Assert.assertFalse("Re-added vertex inherited an edge", graph.containsEdge(49, 50));
+        Assert.assertTrue("Edge should be removed", graph.removeEdge(0, 1));
+        Assert.assertFalse("Edge should not be removed twice", graph.removeEdge(0, 1));
+
+        graph.addVertex(1000);
+        Assert.assertTrue("Graph should grow to fit a large id", graph.capacity() > 1000);
+        try
+        {
+            graph.addVertex(-1);
+            Assert.fail("Negative id should be rejected");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assert true; //do nothing
+        }
+
+        graph.clear();
+        Assert.assertEquals("Vertex size should be zero after clear", 0, graph.vertexSize());
+        Assert.assertEquals("Edge size should be zero after clear", 0, graph.edgeSize());
+    }
+
+    /**
+     * Verifies that the IGraph view reads and writes through to the graph.
+     */
+    @Test
+    public void graphViewTest()
+    {
+        IGraph<Integer> view = graph.asGraph();
+        Assert.assertEquals("View vertex size is incorrect", VERTEX_COUNT, view.vertexSize());
+        Assert.assertEquals("View vertex set size is incorrect", VERTEX_COUNT, view.vertices().size());
+        Assert.assertTrue("View should contain the edges",
+                view.edges().contains(new Edge<>(10, 11, 10)));
+        Assert.assertFalse("Null vertex should not be found", view.containsVertex(null));
+        try
+        {
+            view.addVertex(null);
+            Assert.fail("Null vertex should be rejected");
+        }
+        catch (NullPointerException ex)
+        {
+            Assert.assertEquals("Null vertex message is incorrect", "Vertex cannot be null", ex.getMessage());
+        }
+
+        Assert.assertTrue("Edge should be added through the view", view.addEdge(99, 0, 3));
+        Assert.assertEquals("Edge added through the view is missing", 3, graph.edgeWeight(99, 0));
+        Assert.assertTrue("Vertex should be removed through the view", view.removeVertex(0));
+        Assert.assertFalse("Vertex removed through the view is still present", graph.containsVertex(0));
+        Assert.assertEquals("View edge set size is incorrect", VERTEX_COUNT - 2, view.edges().size());
+    }
+
+    /**
+     * Verifies neighbor iteration over ids.
+     */
+    @Test
+    public void neighborIterationTest()
+    {
+        graph.addEdge(10, 3, 4);
+        int[] sum = new int[2];
+        Assert.assertTrue("Vertex should be found", graph.forEachOutEdge(10, (destination, weight) ->
+        {
+            sum[0] += destination;
+            sum[1] += weight;
+        }));
+        Assert.assertEquals("Destinations are incorrect", 14, sum[0]);
+        Assert.assertEquals("Weights are incorrect", 14, sum[1]);
+        Assert.assertEquals("First neighbor is incorrect", 3, graph.outNeighbors(10).nextInt());
+        Assert.assertFalse("Last vertex should have no neighbors", graph.outNeighbors(VERTEX_COUNT - 1).hasNext());
+    }
+}
@@ -0,0 +1,99 @@
+package tests;
+
+import graphs.Edge;
+import graphs.UnweightedDirectedGraph;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Verifies the bit-matrix-only graph variant.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class UnweightedDirectedGraphTest
+{
+    private UnweightedDirectedGraph<Integer> graph;
+
+    /**
+     * Creates a new graph for each test.
+     */
+    @Before
+    public void setup()
+    {
+        graph = new UnweightedDirectedGraph<>();
+    }
+
+    /**
+     * Verifies that edges survive several resizes and that every edge
+     * reports the unit weight.
+     */
+    @Test
+    public void edgesAcrossResizeTest()
+    {
+        for (int i = 0; i < 200; i++)
+        {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 199; i++)
+        {
+            Assert.assertTrue("Graph does not recognize adding a valid edge",
+                    graph.addEdge(i, i + 1, 7));
+        }
+
+        Assert.assertEquals("Edge size is incorrect", 199, graph.edgeSize());
+        Assert.assertEquals("Edge set size is incorrect", 199, graph.edges().size());
+        for (Edge<Integer> edge : graph.edges())
+        {
+            Assert.assertEquals("Edge " + edge + " is not adjacent",
+                    edge.getSource() + 1, (int) edge.getDestination());
+            Assert.assertEquals("Edge weight is not the unit weight",
+                    UnweightedDirectedGraph.WEIGHT, edge.getWeight());
+        }
+        Assert.assertEquals("Missing edge should report -1", -1, graph.edgeWeight(5, 4));
+        Assert.assertEquals("Existing edge should report the unit weight",
+                UnweightedDirectedGraph.WEIGHT, graph.edgeWeight(4, 5));
+    }
+
+    /**
+     * Verifies that removing an edge clears its bit.
+     */
+    @Test
+    public void removeEdgeTest()
+    {
+        graph.addVertex(1);
+        graph.addVertex(2);
+        graph.addEdge(1, 2, 0);
+
+        Assert.assertTrue("Edge reported as not removed, when it is in the graph",
+                graph.removeEdge(1, 2));
+        Assert.assertFalse("Edge found after being removed", graph.containsEdge(1, 2));
+        Assert.assertEquals("Edge size should be zero", 0, graph.edgeSize());
+    }
+
+    /**
+     * Verifies that in-place weight updates keep or remove edges but always
+     * report the unit weight.
+     */
+    @Test
+    public void weightUpdateTest()
+    {
+        graph.addVertex(1);
+        graph.addVertex(2);
+        Assert.assertEquals("New merged edge should report the unit weight",
+                UnweightedDirectedGraph.WEIGHT, graph.mergeWeight(1, 2, 5, Integer::sum));
+        Assert.assertEquals("Merged edge should report the unit weight",
+                UnweightedDirectedGraph.WEIGHT, graph.mergeWeight(1, 2, 5, Integer::sum));
+        Assert.assertEquals("Stored weight should be the unit weight",
+                UnweightedDirectedGraph.WEIGHT, graph.edgeWeight(1, 2));
+        Assert.assertEquals("Computed edge should report the unit weight",
+                UnweightedDirectedGraph.WEIGHT, graph.computeWeight(2, 1, weight -> 9));
+        Assert.assertEquals("Upsert should report the unit weight as the previous weight",
+                UnweightedDirectedGraph.WEIGHT, graph.upsertEdge(2, 1, 4));
+        Assert.assertEquals("NO_EDGE should remove the edge",
+                UnweightedDirectedGraph.NO_EDGE, graph.computeWeight(1, 2, weight -> UnweightedDirectedGraph.NO_EDGE));
+        Assert.assertFalse("Edge should be removed", graph.containsEdge(1, 2));
+        Assert.assertEquals("Edge size is incorrect", 1, graph.edgeSize());
+    }
+}
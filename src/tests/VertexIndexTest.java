@@ -0,0 +1,65 @@
+package tests;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import structures.VertexIndex;
+
+/**
+ * Verifies the open-addressing vertex index against a HashMap.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class VertexIndexTest
+{
+    /**
+     * Runs a random mix of adds and removes, with many colliding keys, and
+     * checks both directions of the index after every step.
+     */
+    @Test
+    public void randomOperationsTest()
+    {
+        VertexIndex<Integer> index = new VertexIndex<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 20000; step++)
+        {
+            //multiples of 64 collide heavily in small tables
+            int vertex = random.nextInt(500) * 64;
+            if (random.nextBoolean())
+            {
+                int slot = random.nextInt(1000);
+                boolean free = !expected.containsKey(vertex) && !expected.containsValue(slot);
+                Assert.assertEquals("add() result is incorrect", free, index.add(vertex, slot));
+                if (free)
+                {
+                    expected.put(vertex, slot);
+                }
+            }
+            else
+            {
+                Integer slot = expected.remove(vertex);
+                Assert.assertEquals("remove() result is incorrect",
+                        slot == null ? -1 : slot, index.remove(vertex));
+            }
+
+            Assert.assertEquals("Size is incorrect", expected.size(), index.size());
+            int probe = random.nextInt(500) * 64;
+            Integer slot = expected.get(probe);
+            Assert.assertEquals("indexOf() is incorrect", slot == null ? -1 : slot, index.indexOf(probe));
+            if (slot != null)
+            {
+                Assert.assertEquals("vertexAt() is incorrect", probe, (int) index.vertexAt(slot));
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet())
+        {
+            Assert.assertEquals("indexOf() is incorrect", (int) entry.getValue(), index.indexOf(entry.getKey()));
+        }
+        Assert.assertEquals("Missing vertex should report -1", -1, index.indexOf(null));
+    }
+}
@@ -0,0 +1,389 @@
+package tests;
+
+import graphs.DirectedGraph;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import structures.ByteWeightMatrix;
+import structures.IntWeightMatrix;
+import structures.LongWeightMatrix;
+import structures.MappedWeightMatrix;
+import structures.OffHeapWeightMatrix;
+import structures.TiledWeightMatrix;
+import structures.WeightMatrix;
+
+/**
+ * Runs the same workload against a graph built on each weight matrix
+ * implementation.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class WeightMatrixTest
+{
+    private static final int VERTEX_COUNT = 150;
+
+    private void verifyStorage(WeightMatrix weights)
+    {
+        DirectedGraph<Integer> graph = new DirectedGraph<>(weights);
+
+        //force several resizes while edges are being added
+        for (int i = 0; i < VERTEX_COUNT; i++)
+        {
+            graph.addVertex(i);
+            if (i > 0)
+            {
+                graph.addEdge(i - 1, i, i * 1000);
+                graph.addEdge(i, 0, Integer.MAX_VALUE - i);
+            }
+        }
+
+        Assert.assertEquals("Edge size is incorrect", 2 * (VERTEX_COUNT - 1), graph.edgeSize());
+        for (int i = 1; i < VERTEX_COUNT; i++)
+        {
+            Assert.assertEquals("Edge weight is incorrect for edge (" + (i - 1) + ", " + i + ")",
+                    i * 1000, graph.edgeWeight(i - 1, i));
+            Assert.assertEquals("Edge weight is incorrect for edge (" + i + ", 0)",
+                    Integer.MAX_VALUE - i, graph.edgeWeight(i, 0));
+            Assert.assertEquals("Missing edge should report -1", -1, graph.edgeWeight(i, i));
+        }
+
+        graph.clear();
+        Assert.assertEquals("Number of edges returned by the graph should be zero",
+                0, graph.edges().size());
+
+        graph.addVertex(1);
+        graph.addVertex(2);
+        graph.addEdge(1, 2, 0);
+        Assert.assertEquals("Edge weight is incorrect after clear", 0, graph.edgeWeight(1, 2));
+        Assert.assertEquals("Missing edge should report -1 after clear", -1, graph.edgeWeight(2, 1));
+    }
+
+    /**
+     * Verifies the on-heap flat int matrix.
+     */
+    @Test
+    public void intMatrixTest()
+    {
+        verifyStorage(new IntWeightMatrix(10));
+    }
+
+    /**
+     * Verifies that a byte matrix holds its full range and is promoted when
+     * a larger weight arrives.
+     */
+    @Test
+    public void byteMatrixPromotionTest()
+    {
+        DirectedGraph<String> graph = new DirectedGraph<>(new ByteWeightMatrix(10));
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addEdge("A", "B", 255);
+
+        Assert.assertEquals("Unsigned byte weight is incorrect", 255, graph.edgeWeight("A", "B"));
+
+        graph.addEdge("B", "C", 70000);
+        Assert.assertEquals("Weight is incorrect after promotion", 70000, graph.edgeWeight("B", "C"));
+        Assert.assertEquals("Weight was lost during promotion", 255, graph.edgeWeight("A", "B"));
+
+        graph.addEdge("C", "A", Long.MAX_VALUE);
+        Assert.assertEquals("Long weight is incorrect", Long.MAX_VALUE, graph.edgeWeightAsLong("C", "A"));
+        Assert.assertEquals("Weight was lost during promotion", 70000, graph.edgeWeight("B", "C"));
+        try
+        {
+            graph.edgeWeight("C", "A");
+            Assert.fail("Long weight was truncated to an int");
+        }
+        catch (ArithmeticException ex)
+        {
+            assert true; //do nothing
+        }
+    }
+
+    /**
+     * Verifies the long matrix.
+     */
+    @Test
+    public void longMatrixTest()
+    {
+        verifyStorage(new LongWeightMatrix(10));
+    }
+
+    /**
+     * Verifies the off-heap direct buffer matrix.
+     */
+    @Test
+    public void offHeapMatrixTest()
+    {
+        verifyStorage(new OffHeapWeightMatrix(10));
+    }
+
+    /**
+     * Verifies the lazily tiled matrix, and that vertices without edges do not
+     * allocate any tiles.
+     */
+    @Test
+    public void tiledMatrixTest()
+    {
+        verifyStorage(new TiledWeightMatrix(10));
+
+        TiledWeightMatrix weights = new TiledWeightMatrix(10);
+        DirectedGraph<Integer> graph = new DirectedGraph<>(weights);
+        for (int i = 0; i < 500; i++)
+        {
+            graph.addVertex(i);
+        }
+        for (int i = 1; i < 10; i++)
+        {
+            graph.addEdge(0, i, i);
+        }
+        graph.addEdge(499, 498, 7);
+
+        Assert.assertEquals("Only two tiles should be allocated", 2, weights.allocatedTiles());
+        Assert.assertEquals("Edge weight is incorrect", 7, graph.edgeWeight(499, 498));
+        Assert.assertEquals("Missing edge should report -1", -1, graph.edgeWeight(300, 0));
+        Assert.assertFalse("Sink vertex should have no edges", graph.containsEdge(300, 301));
+    }
+
+    /**
+     * Verifies the memory-mapped matrix, including reopening the graph from
+     * its file.
+     *
+     * @throws IOException if the temporary file cannot be used
+     */
+    @Test
+    public void mappedMatrixTest() throws IOException
+    {
+        Path file = Files.createTempFile("graph", ".matrix");
+        try
+        {
+            try (MappedWeightMatrix weights = MappedWeightMatrix.create(file, 10, 1000))
+            {
+                verifyStorage(weights);
+            }
+
+            List<Integer> vertices = new ArrayList<>();
+            try (MappedWeightMatrix weights = MappedWeightMatrix.create(file, 10, 1000))
+            {
+                DirectedGraph<Integer> graph = new DirectedGraph<>(weights);
+                for (int i = 0; i < VERTEX_COUNT; i++)
+                {
+                    graph.addVertex(i);
+                    vertices.add(i);
+                }
+                for (int i = 0; i < VERTEX_COUNT; i++)
+                {
+                    graph.addEdge(i, (i * 7) % VERTEX_COUNT, i);
+                }
+                graph.removeEdge(3, 21);
+            }
+
+            try (MappedWeightMatrix weights = MappedWeightMatrix.open(file))
+            {
+                DirectedGraph<Integer> graph = DirectedGraph.open(weights, vertices);
+                Assert.assertEquals("Edge size is incorrect after reopening",
+                        VERTEX_COUNT - 1, graph.edgeSize());
+                Assert.assertFalse("Removed edge found after reopening", graph.containsEdge(3, 21));
+                for (int i = 0; i < VERTEX_COUNT; i++)
+                {
+                    if (i != 3)
+                    {
+                        Assert.assertEquals("Edge weight is incorrect after reopening",
+                                i, graph.edgeWeight(i, (i * 7) % VERTEX_COUNT));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Verifies that a mapped graph reopens correctly after a vertex has been
+     * removed and its index reused, and that a vertex list missing a row with
+     * edges is rejected.
+     *
+     * @throws IOException if the temporary file cannot be used
+     */
+    @Test
+    public void mappedReopenAfterRemovalTest() throws IOException
+    {
+        Path file = Files.createTempFile("graph", ".matrix");
+        try
+        {
+            List<String> vertices = new ArrayList<>();
+            try (MappedWeightMatrix weights = MappedWeightMatrix.create(file, 10, 1000))
+            {
+                DirectedGraph<String> graph = new DirectedGraph<>(weights);
+                graph.addVertex("A");
+                graph.addVertex("B");
+                graph.addVertex("C");
+                graph.addVertex("E");
+                graph.addEdge("C", "A", 3);
+                graph.removeVertex("B");
+                graph.addVertex("D");
+                graph.addEdge("D", "A", 9);
+                graph.addEdge("A", "E", 5);
+                graph.removeVertex("C");
+                for (int i = 0; i < graph.capacity(); i++)
+                {
+                    vertices.add(graph.vertexAt(i));
+                }
+            }
+
+            try (MappedWeightMatrix weights = MappedWeightMatrix.open(file))
+            {
+                DirectedGraph<String> graph = DirectedGraph.open(weights, vertices);
+                Assert.assertEquals("Vertex size is incorrect after reopening", 3, graph.vertexSize());
+                Assert.assertEquals("Edge size is incorrect after reopening", 2, graph.edgeSize());
+                Assert.assertEquals("Edge weight is incorrect after reopening", 9, graph.edgeWeight("D", "A"));
+                Assert.assertEquals("Edge weight is incorrect after reopening", 5, graph.edgeWeight("A", "E"));
+
+                graph.addVertex("F");
+                Assert.assertEquals("Free index should be reused", vertices.indexOf(null), graph.vertexId("F"));
+                Assert.assertEquals("Reused index should start without edges", 0, graph.inDegree("F"));
+            }
+
+            try (MappedWeightMatrix weights = MappedWeightMatrix.open(file))
+            {
+                DirectedGraph.open(weights, vertices.subList(0, 2));
+                Assert.fail("Edges of an unlisted vertex should be rejected");
+            }
+            catch (IllegalArgumentException ex)
+            {
+                assert true; //do nothing
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Verifies that cells survive resizes that move a heap matrix between the
+     * flat and chunked layouts, using a small flat limit and chunk size.
+     */
+    @Test
+    public void chunkedLayoutTest()
+    {
+        IntWeightMatrix weights = new IntWeightMatrix(6, 8, 64);
+        fill(weights, 6);
+
+        // 20 rows of 20 cells split into chunks of two rows each
+        weights.resize(20);
+        verifyCells(weights, 6, 20);
+        fill(weights, 20);
+
+        // 40 cells per row no longer fit twice in a chunk, so each row is its own chunk
+        weights.resize(40);
+        verifyCells(weights, 20, 40);
+
+        // back under the flat limit
+        weights.resize(5);
+        verifyCells(weights, 5, 5);
+
+        DirectedGraph<Integer> graph = new DirectedGraph<>(new ByteWeightMatrix(4, 8, 64));
+        for (int i = 0; i < 30; i++)
+        {
+            graph.addVertex(i);
+        }
+        for (int i = 0; i < 30; i++)
+        {
+            graph.addEdge(i, (i * 7) % 30, i);
+        }
+        graph.addEdge(29, 0, 70000);
+        Assert.assertEquals("Weight is incorrect after promotion", 70000, graph.edgeWeight(29, 0));
+        for (int i = 0; i < 29; i++)
+        {
+            Assert.assertEquals("Weight was lost in the chunked layout", i, graph.edgeWeight(i, (i * 7) % 30));
+        }
+    }
+
+    private void fill(WeightMatrix weights, int size)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            for (int j = 0; j < size; j++)
+            {
+                weights.set(i, j, i * 100 + j);
+            }
+        }
+    }
+
+    private void verifyCells(WeightMatrix weights, int filled, int size)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            for (int j = 0; j < size; j++)
+            {
+                long expected = i < filled && j < filled ? i * 100 + j : 0;
+                Assert.assertEquals("Cell (" + i + ", " + j + ") is incorrect", expected, weights.get(i, j));
+            }
+        }
+    }
+
+    /**
+     * Verifies that reopening a mapped graph reads the row index rather than
+     * every cell: a weight planted in the file under an empty, vertex-less row
+     * would be rejected if open() read that row.
+     *
+     * @throws IOException if the temporary file cannot be used
+     */
+    @Test
+    public void mappedOpenSkipsEmptyRowsTest() throws IOException
+    {
+        Path file = Files.createTempFile("graph", ".matrix");
+        try
+        {
+            List<String> vertices = new ArrayList<>();
+            try (MappedWeightMatrix weights = MappedWeightMatrix.create(file, 10, 100))
+            {
+                DirectedGraph<String> graph = new DirectedGraph<>(weights);
+                graph.addVertex("A");
+                graph.addVertex("B");
+                graph.addVertex("C");
+                graph.addEdge("B", "A", 4);
+                graph.addEdge("A", "C", 7);
+                graph.addEdge("A", "B", 2);
+                graph.removeVertex("B");
+                for (int i = 0; i < graph.capacity(); i++)
+                {
+                    vertices.add(graph.vertexAt(i));
+                }
+                Assert.assertEquals("Removed row should be empty", 0, weights.rowSize(1));
+                Assert.assertEquals("Row size is incorrect", 1, weights.rowSize(0));
+            }
+
+            // rows are 100 cells wide and the file ends with the last of the 10 rows
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+            {
+                ByteBuffer cell = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.nativeOrder()).putInt(0, 5);
+                channel.write(cell, channel.size() - 9L * 100 * Integer.BYTES);
+            }
+
+            try (MappedWeightMatrix weights = MappedWeightMatrix.open(file))
+            {
+                Assert.assertTrue("Planted weight should be in the removed row", weights.contains(1, 0));
+                DirectedGraph<String> graph = DirectedGraph.open(weights, vertices);
+                Assert.assertEquals("Edge size is incorrect after reopening", 1, graph.edgeSize());
+                Assert.assertEquals("Edge weight is incorrect after reopening", 7, graph.edgeWeight("A", "C"));
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+}
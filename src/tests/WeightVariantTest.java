@@ -0,0 +1,205 @@
+package tests;
+
+import graphs.DirectedGraph;
+import graphs.DoubleDirectedGraph;
+import graphs.Edge;
+import graphs.FloatDirectedGraph;
+import graphs.UnweightedDirectedGraph;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies the long, float and double weighted graphs, and that shortest
+ * paths work the same over every kind of weight.
+ *
+ * @author Jhakon Pappoe
+ * @version 0.1
+ */
+public class WeightVariantTest
+{
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Builds A -> B -> C -> D with a costly shortcut A -> D, and an
+     * unreachable vertex E.
+     */
+    private <G extends DirectedGraph<String>> G diamond(G graph)
+    {
+        for (String vertex : new String[] {"A", "B", "C", "D", "E"})
+        {
+            graph.addVertex(vertex);
+        }
+        graph.addEdge("A", "B", 1);
+        graph.addEdge("B", "C", 1);
+        graph.addEdge("C", "D", 1);
+        graph.addEdge("A", "D", 5);
+        return graph;
+    }
+
+    private void verifyDistances(DirectedGraph<String> graph, double toD)
+    {
+        Map<String, Double> distances = graph.shortestPathDistances("A");
+        Assert.assertEquals("Reachable vertex count is incorrect", 4, distances.size());
+        Assert.assertEquals("Source distance should be zero", 0, distances.get("A"), DELTA);
+        Assert.assertEquals("Distance is incorrect", toD, distances.get("D"), DELTA);
+        Assert.assertFalse("Unreachable vertex should be absent", distances.containsKey("E"));
+    }
+
+    private void verifyDoubleTraversal(DirectedGraph<String> graph, double totalWeight)
+    {
+        double[] sum = new double[1];
+        graph.forEachEdgeAsDouble((source, destination, weight) -> sum[0] += weight);
+        Assert.assertEquals("Total weight is incorrect", totalWeight, sum[0], DELTA);
+
+        sum[0] = 0;
+        Assert.assertTrue("Vertex should be found", graph.forEachOutEdgeAsDouble("B",
+                (destination, weight) -> sum[0] += weight));
+        Assert.assertEquals("Out-edge weight is incorrect", 1 + graph.edgeWeightAsDouble("B", "D"), sum[0], DELTA);
+        Assert.assertFalse("Missing vertex should not be found",
+                graph.forEachOutEdgeAsDouble("Z", (destination, weight) -> sum[0] += weight));
+    }
+
+    /**
+     * Verifies double weights, including the rounded int view of them.
+     */
+    @Test
+    public void doubleGraphTest()
+    {
+        DoubleDirectedGraph<String> graph = diamond(new DoubleDirectedGraph<>());
+        Assert.assertTrue("Edge should be added", graph.addEdge("B", "D", 0.25));
+        Assert.assertEquals("Double weight is incorrect", 0.25, graph.edgeWeightAsDouble("B", "D"), 0);
+        Assert.assertEquals("Whole weight is incorrect", 5, graph.edgeWeight("A", "D"));
+        Assert.assertTrue("Missing edge should report NaN", Double.isNaN(graph.edgeWeightAsDouble("D", "A")));
+        Assert.assertEquals("Missing edge should report -1", -1, graph.edgeWeight("D", "A"));
+        verifyDistances(graph, 1.25);
+
+        Assert.assertEquals("Fractional weight should round for the int methods", 0, graph.edgeWeight("B", "D"));
+        for (Edge<String> edge : graph.edges())
+        {
+            Assert.assertEquals("Edge set weight should be rounded", Math.round(graph.edgeWeightAsDouble(
+                    edge.getSource(), edge.getDestination())), edge.getWeight());
+        }
+        verifyDoubleTraversal(graph, 8.25);
+        try
+        {
+            graph.addEdge("D", "A", Double.NaN);
+            Assert.fail("NaN weight should be rejected");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assert true; //do nothing
+        }
+
+        graph.addAll(Collections.singletonList("E"), new int[] {0}, new int[] {0}, new int[] {3});
+        Assert.assertEquals("Bulk loaded weight is incorrect", 3, graph.edgeWeightAsDouble("E", "E"), 0);
+
+        graph.removeVertex("C");
+        graph.compact();
+        Assert.assertEquals("Double weight changed after compact", 0.25, graph.edgeWeightAsDouble("B", "D"), 0);
+    }
+
+    /**
+     * Verifies float weights.
+     */
+    @Test
+    public void floatGraphTest()
+    {
+        FloatDirectedGraph<String> graph = diamond(new FloatDirectedGraph<>());
+        Assert.assertTrue("Edge should be added", graph.addEdge("B", "D", 0.5f));
+        Assert.assertEquals("Float weight is incorrect", 0.5, graph.edgeWeightAsDouble("B", "D"), 0);
+        Assert.assertEquals("Whole weight is incorrect", 5, graph.edgeWeightAsLong("A", "D"));
+        Assert.assertEquals("Fractional weight should round for the int methods", 1, graph.edgeWeight("B", "D"));
+        Assert.assertEquals("Edge set size is incorrect", 5, graph.edges().size());
+        verifyDoubleTraversal(graph, 8.5);
+        verifyDistances(graph, 1.5);
+    }
+
+    /**
+     * Verifies that shortest paths read int, long and unweighted graphs.
+     */
+    @Test
+    public void integerGraphsTest()
+    {
+        DirectedGraph<String> graph = diamond(new DirectedGraph<>());
+        verifyDistances(graph, 3);
+
+        graph.addEdge("B", "D", Long.MAX_VALUE);
+        Assert.assertEquals("Long weight is incorrect", (double) Long.MAX_VALUE,
+                graph.edgeWeightAsDouble("B", "D"), 0);
+        verifyDistances(graph, 3);
+
+        verifyDistances(diamond(new UnweightedDirectedGraph<>()), 1);
+        Assert.assertTrue("Missing source should have no distances",
+                graph.shortestPathDistances("Z").isEmpty());
+    }
+
+    /**
+     * Verifies that updating a fractional weight never writes back a rounded
+     * value: the int-based updates refuse it and the double-based ones keep
+     * the precision.
+     */
+    @Test
+    public void fractionalUpdateTest()
+    {
+        DoubleDirectedGraph<String> graph = diamond(new DoubleDirectedGraph<>());
+        graph.addEdge("B", "D", 1.4);
+        try
+        {
+            graph.mergeWeight("B", "D", 1, Integer::sum);
+            Assert.fail("Fractional weight should not be merged as an int");
+        }
+        catch (ArithmeticException ex)
+        {
+            assert true; //do nothing
+        }
+        try
+        {
+            graph.upsertEdge("B", "D", 2);
+            Assert.fail("Fractional previous weight should not be reported as an int");
+        }
+        catch (ArithmeticException ex)
+        {
+            assert true; //do nothing
+        }
+        Assert.assertEquals("Refused update changed the weight", 1.4, graph.edgeWeightAsDouble("B", "D"), 0);
+
+        Assert.assertEquals("Merged weight is incorrect", 2.4,
+                graph.mergeWeightAsDouble("B", "D", 1, Double::sum), DELTA);
+        Assert.assertEquals("Computed weight is incorrect", 4.8,
+                graph.computeWeightAsDouble("B", "D", weight -> weight * 2), DELTA);
+        Assert.assertEquals("Upsert should report the previous weight", 4.8, graph.upsertEdge("B", "D", 0.5), DELTA);
+        Assert.assertEquals("Upsert of a new edge should report NO_EDGE",
+                DirectedGraph.NO_EDGE, graph.upsertEdge("D", "B", 0.5), 0);
+        Assert.assertEquals("Whole weight should merge as an int", 6, graph.mergeWeight("A", "D", 1, Math::addExact));
+        Assert.assertEquals("NO_EDGE should remove the edge", DirectedGraph.NO_EDGE,
+                graph.computeWeightAsDouble("B", "D", weight -> DirectedGraph.NO_EDGE), 0);
+        Assert.assertFalse("Edge should be removed", graph.containsEdge("B", "D"));
+        try
+        {
+            graph.computeWeightAsDouble("A", "B", weight -> Double.NaN);
+            Assert.fail("NaN weight should be rejected");
+        }
+        catch (IllegalArgumentException ex)
+        {
+            assert true; //do nothing
+        }
+
+        FloatDirectedGraph<String> floats = diamond(new FloatDirectedGraph<>());
+        floats.addEdge("B", "D", 0.5f);
+        try
+        {
+            floats.computeWeight("B", "D", weight -> weight + 1);
+            Assert.fail("Fractional weight should not be computed as an int");
+        }
+        catch (ArithmeticException ex)
+        {
+            assert true; //do nothing
+        }
+        Assert.assertEquals("Merged float weight is incorrect", 0.75,
+                floats.mergeWeightAsDouble("B", "D", 0.25, Double::sum), 0);
+        Assert.assertEquals("Float weight should be rounded to a float", (float) 0.1,
+                floats.computeWeightAsDouble("B", "D", weight -> 0.1), 0);
+    }
+}